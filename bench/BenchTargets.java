@@ -0,0 +1,284 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+/*
+ * JMH 벤치마크용 대상 코드 모음.
+ * 애플리케이션 클래스가 기본 패키지에 있고 JMH 는 기본 패키지 벤치마크를 허용하지 않으므로,
+ * board.bench 의 벤치마크는 이 클래스의 static 메서드가 돌려주는 Callable 을 리플렉션으로 받아 호출한다.
+ * (Callable 한 번 감싸는 비용은 측정 대상에 비해 무시할 수준)
+ */
+public class BenchTargets {
+    private static final byte[] SECRET = "bench-secret-key-0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+
+    private static HttpServer server;
+
+    //  -Dboard.bench.seedRows 개수만큼 게시글이 있도록 채운다 (이미 있으면 건너뜀)
+    public static void seed() throws Exception {
+        int rows = AppConfig.getInt("board.bench.seedRows", 1_000);
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            try (Statement st = conn.createStatement(); ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM post")) {
+                rs.next();
+                if (rs.getLong(1) >= rows) { return; }
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT INTO post (title, content, author, createdAt) VALUES (?, ?, ?, ?)")) {
+                LocalDateTime base = LocalDateTime.now().minusDays(30);
+                for (int i = 0; i < rows; i++) {
+                    ps.setString(1, "벤치마크 게시글 " + i);
+                    ps.setString(2, "H2 와 HttpServer 로 만든 게시판의 본문입니다. 성능 측정을 위한 샘플 데이터 " + i);
+                    ps.setString(3, "작성자" + (i % 50));
+                    ps.setTimestamp(4, Timestamp.valueOf(base.plusSeconds(i)));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            conn.commit();
+        }
+    }
+
+    public static long queryCount() {
+        return DatabaseUtil.getPoolStats().statementExecutions;
+    }
+
+    // ---- PostDao ----
+
+    public static Callable<Object> findById() {
+        PostDao dao = new PostDao();
+        int rows = AppConfig.getInt("board.bench.seedRows", 1_000);
+        long[] next = {0};
+        return () -> dao.findById(1 + (next[0]++ % rows));
+    }
+
+    public static Callable<Object> findAll() {
+        PostDao dao = new PostDao();
+        return dao::findAll;
+    }
+
+    public static Callable<Object> findFirstPage() {
+        PostDao dao = new PostDao();
+        return () -> dao.findPage(null, 20);
+    }
+
+    //  POST/PUT/DELETE 한 사이클 (요청당 쿼리 수는 queryCount() 차이로 확인)
+    public static Callable<Object> writeCycle() {
+        PostDao dao = new PostDao();
+        return () -> {
+            Post post = samplePost();
+            dao.save(post);
+            post.setTitle("수정된 제목");
+            dao.update(post);
+            return dao.delete(post.getId());
+        };
+    }
+
+    // ---- 직렬화 ----
+
+    public static Callable<Object> serializePost() {
+        Post post = samplePost();
+        post.setId(42L);
+        post.setCreatedAt(LocalDateTime.now());
+        return () -> GSON.toJson(post);
+    }
+
+    public static Callable<Object> serializePage() throws Exception {
+        List<Post> posts = new PostDao().findPage(null, 20).getPosts();
+        return () -> GSON.toJson(posts);
+    }
+
+    // ---- JWT ----
+
+    public static Callable<Object> jwtSign() {
+        Map<String, Object> payload = samplePayload();
+        return () -> JWTUtil.signHS256(SECRET, payload);
+    }
+
+    public static Callable<Object> jwtVerify() {
+        String token = JWTUtil.signHS256(SECRET, samplePayload());
+        return () -> JWTUtil.verifyHS256(SECRET, token);
+    }
+
+    public static Callable<Object> jwtVerifier() {
+        String token = JWTUtil.signHS256(SECRET, samplePayload());
+        JwtVerifier verifier = new JwtVerifier(SECRET);
+        return () -> verifier.verify(token);
+    }
+
+    public static Callable<Object> jwtVerifierCached() {
+        String token = JWTUtil.signHS256(SECRET, samplePayload());
+        JwtVerifier verifier = new JwtVerifier(SECRET, 1_024, 0);
+        return () -> verifier.verify(token);
+    }
+
+    //  AuthFilter 의 헤더 검증 경로 (같은 토큰 반복 -> LRU 적중)
+    public static Callable<Object> authHeader() {
+        String header = "Bearer " + JWTUtil.signHS256(SECRET, samplePayload());
+        AuthFilter filter = new AuthFilter(new JwtVerifier(SECRET, 10_000, 30));
+        return () -> filter.authenticate(header);
+    }
+
+    // ---- SimpleJson ----
+
+    private static final String SIGNUP_BODY =
+            "{\"email\":\"user@example.com\",\"password\":\"correct-horse-battery\",\"name\":\"홍길동\"}";
+
+    public static Callable<Object> simpleJsonParse() {
+        return () -> SimpleJson.parseToStringMap(SIGNUP_BODY);
+    }
+
+    //  요청 본문처럼 InputStream 에서 바로 읽는 경로
+    public static Callable<Object> jsonFieldReaderParse() {
+        byte[] body = SIGNUP_BODY.getBytes(StandardCharsets.UTF_8);
+        return () -> JsonFieldReader.readObject(new ByteArrayInputStream(body), HttpUtil.MAX_JSON_BYTES);
+    }
+
+    //  같은 스트림을 Gson 으로 Map 에 읽는 경우
+    public static Callable<Object> gsonMapParse() {
+        byte[] body = SIGNUP_BODY.getBytes(StandardCharsets.UTF_8);
+        Type mapType = new TypeToken<Map<String, String>>() {}.getType();
+        return () -> GSON.fromJson(new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8), mapType);
+    }
+
+    //  교체 전 구현 (readAllBytes 로 String 을 만든 뒤 ',' / ':' 로 분할) - 비교 기준
+    public static Callable<Object> legacySplitParse() {
+        byte[] body = SIGNUP_BODY.getBytes(StandardCharsets.UTF_8);
+        return () -> {
+            String json = new String(new ByteArrayInputStream(body).readAllBytes(), StandardCharsets.UTF_8).trim();
+            Map<String, String> map = new HashMap<>();
+            String inner = json.substring(1, json.length() - 1);
+            for (String p : inner.split(",")) {
+                String[] kv = p.split(":", 2);
+                if (kv.length != 2) continue;
+                map.put(stripQuotes(kv[0].trim()), stripQuotes(kv[1].trim()));
+            }
+            return map;
+        };
+    }
+
+    private static String stripQuotes(String s) {
+        if (s.startsWith("\"") && s.endsWith("\"") && s.length() >= 2) {
+            return s.substring(1, s.length() - 1).replace("\\\"", "\"");
+        }
+        return s;
+    }
+
+    // ---- 요청 제한 ----
+
+    //  제한에 걸리지 않을 만큼 큰 한도: 토큰을 꺼내는 CAS 경로만 잰다
+    private static RateLimitFilter newRateLimiter() {
+        return new RateLimitFilter("bench", null, Integer.MAX_VALUE, Integer.MAX_VALUE / 1_000, 100_000, 60_000L);
+    }
+
+    private static final RateLimitFilter SHARED_LIMITER = newRateLimiter();
+
+    public static Callable<Object> rateLimitSingleKey() {
+        RateLimitFilter limiter = newRateLimiter();
+        return () -> limiter.tryAcquire("ip:10.0.0.1", System.nanoTime());
+    }
+
+    //  1 만 클라이언트를 돌아가며 (맵 조회 캐시 미스 포함)
+    public static Callable<Object> rateLimitManyKeys() {
+        RateLimitFilter limiter = newRateLimiter();
+        String[] keys = new String[10_000];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "ip:10.0." + (i >> 8) + "." + (i & 0xFF);
+        }
+        int[] next = {0};
+        return () -> {
+            int i = next[0];
+            next[0] = (i + 1) % keys.length;
+            return limiter.tryAcquire(keys[i], System.nanoTime());
+        };
+    }
+
+    //  여러 스레드가 한 클라이언트의 버킷 하나를 두고 CAS 경쟁
+    public static Callable<Object> rateLimitSharedKey() {
+        return () -> SHARED_LIMITER.tryAcquire("sub:shared", System.nanoTime());
+    }
+
+    // ---- HttpServer 왕복 ----
+
+    public static synchronized int startServer() throws Exception {
+        if (server == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/api/posts", new PostHandler());
+            server.setExecutor(Executors.newFixedThreadPool(4));
+            server.start();
+        }
+        return server.getAddress().getPort();
+    }
+
+    public static synchronized void stopServer() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    public static Callable<Object> httpGetById() throws Exception {
+        return httpGet("/api/posts/1");
+    }
+
+    public static Callable<Object> httpGetFirstPage() throws Exception {
+        return httpGet("/api/posts?limit=20");
+    }
+
+    private static Callable<Object> httpGet(String path) throws Exception {
+        int port = startServer();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + port + path)).GET().build();
+        return () -> {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("HTTP " + response.statusCode());
+            }
+            return response.body();
+        };
+    }
+
+    private static Post samplePost() {
+        Post post = new Post();
+        post.setTitle("벤치마크 게시글");
+        post.setContent("H2 와 HttpServer 로 만든 게시판의 본문입니다.");
+        post.setAuthor("벤치");
+        return post;
+    }
+
+    private static Map<String, Object> samplePayload() {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        long now = System.currentTimeMillis() / 1000;
+        payload.put("sub", "5f1c7a2e-3d4b-4a8e-9c11-2b7d3e9f0a44");
+        payload.put("email", "user@example.com");
+        payload.put("iat", now);
+        payload.put("exp", now + 3600);
+        return payload;
+    }
+}
@@ -0,0 +1,22 @@
+package board.bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/*
+ * benchmarks.jar 진입점. JMH 명령행 옵션을 그대로 받고 GC 프로파일러(할당률)를 항상 붙인다.
+ *   mvn -Pbench package
+ *   java -jar target/benchmarks.jar            # 전체
+ *   java -jar target/benchmarks.jar Jwt -f 1   # 이름에 Jwt 가 들어간 것만
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cli)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
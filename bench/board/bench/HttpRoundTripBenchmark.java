@@ -0,0 +1,50 @@
+package board.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+//  같은 프로세스 안의 HttpServer(PostHandler)에 대한 HTTP/1.1 왕복
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dboard.db.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+@State(Scope.Benchmark)
+public class HttpRoundTripBenchmark {
+    private Callable<Object> getById;
+    private Callable<Object> getFirstPage;
+
+    @Setup
+    public void setUp() throws Exception {
+        Targets.call("seed");
+        getById = Targets.get("httpGetById");
+        getFirstPage = Targets.get("httpGetFirstPage");
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Targets.call("stopServer");
+    }
+
+    @Benchmark
+    public Object getPostById() throws Exception {
+        return getById.call();
+    }
+
+    @Benchmark
+    public Object getFirstPage() throws Exception {
+        return getFirstPage.call();
+    }
+}
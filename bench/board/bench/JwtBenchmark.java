@@ -0,0 +1,63 @@
+package board.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtBenchmark {
+    private Callable<Object> sign;
+    private Callable<Object> verify;
+    private Callable<Object> verifier;
+    private Callable<Object> verifierCached;
+    private Callable<Object> authHeader;
+
+    @Setup
+    public void setUp() throws Exception {
+        sign = Targets.get("jwtSign");
+        verify = Targets.get("jwtVerify");
+        verifier = Targets.get("jwtVerifier");
+        verifierCached = Targets.get("jwtVerifierCached");
+        authHeader = Targets.get("authHeader");
+    }
+
+    @Benchmark
+    public Object signHS256() throws Exception {
+        return sign.call();
+    }
+
+    @Benchmark
+    public Object verifyHS256() throws Exception {
+        return verify.call();
+    }
+
+    @Benchmark
+    public Object jwtVerifier() throws Exception {
+        return verifier.call();
+    }
+
+    @Benchmark
+    public Object jwtVerifierCached() throws Exception {
+        return verifierCached.call();
+    }
+
+    @Benchmark
+    public Object authFilterHeader() throws Exception {
+        return authHeader.call();
+    }
+}
@@ -0,0 +1,83 @@
+package board.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+//  인메모리 H2 + 시드 데이터에 대한 PostDao 호출. 캐시를 끄고 DB 경로 자체를 잰다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {
+        "-Dboard.db.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false",
+        "-Dboard.cache.enabled=false"})
+@State(Scope.Thread)
+public class PostDaoBenchmark {
+    private Callable<Object> findById;
+    private Callable<Object> findAll;
+    private Callable<Object> findFirstPage;
+    private Callable<Object> writeCycle;
+
+    //  실행된 SQL 수와 호출 수 (queries / calls = 요청 사이클당 쿼리 수)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Queries {
+        public long queries;
+        public long calls;
+        private long before;
+
+        @Setup(Level.Invocation)
+        public void mark() throws Exception {
+            before = (Long) Targets.call("queryCount");
+        }
+
+        void record() throws Exception {
+            queries += (Long) Targets.call("queryCount") - before;
+            calls++;
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        Targets.call("seed");
+        findById = Targets.get("findById");
+        findAll = Targets.get("findAll");
+        findFirstPage = Targets.get("findFirstPage");
+        writeCycle = Targets.get("writeCycle");
+    }
+
+    @Benchmark
+    public Object findById() throws Exception {
+        return findById.call();
+    }
+
+    @Benchmark
+    public Object findAll() throws Exception {
+        return findAll.call();
+    }
+
+    @Benchmark
+    public Object findFirstPage() throws Exception {
+        return findFirstPage.call();
+    }
+
+    @Benchmark
+    public Object saveUpdateDelete(Queries queries) throws Exception {
+        Object result = writeCycle.call();
+        queries.record();
+        return result;
+    }
+}
@@ -0,0 +1,51 @@
+package board.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RateLimitBenchmark {
+    private Callable<Object> singleKey;
+    private Callable<Object> manyKeys;
+    private Callable<Object> sharedKey;
+
+    @Setup
+    public void setUp() throws Exception {
+        singleKey = Targets.get("rateLimitSingleKey");
+        manyKeys = Targets.get("rateLimitManyKeys");
+        sharedKey = Targets.get("rateLimitSharedKey");
+    }
+
+    @Benchmark
+    public Object tryAcquireSingleKey() throws Exception {
+        return singleKey.call();
+    }
+
+    @Benchmark
+    public Object tryAcquireManyKeys() throws Exception {
+        return manyKeys.call();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object tryAcquireSharedKeyContended() throws Exception {
+        return sharedKey.call();
+    }
+}
@@ -0,0 +1,44 @@
+package board.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+//  LocalDateTimeAdapter 를 등록한 Gson 으로 게시글 1건 / 20건 직렬화
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dboard.db.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false")
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    private Callable<Object> serializePost;
+    private Callable<Object> serializePage;
+
+    @Setup
+    public void setUp() throws Exception {
+        Targets.call("seed");
+        serializePost = Targets.get("serializePost");
+        serializePage = Targets.get("serializePage");
+    }
+
+    @Benchmark
+    public Object post() throws Exception {
+        return serializePost.call();
+    }
+
+    @Benchmark
+    public Object page() throws Exception {
+        return serializePage.call();
+    }
+}
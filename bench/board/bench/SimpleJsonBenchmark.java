@@ -0,0 +1,56 @@
+package board.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimpleJsonBenchmark {
+    private Callable<Object> parse;
+    private Callable<Object> streaming;
+    private Callable<Object> gson;
+    private Callable<Object> legacy;
+
+    @Setup
+    public void setUp() throws Exception {
+        parse = Targets.get("simpleJsonParse");
+        streaming = Targets.get("jsonFieldReaderParse");
+        gson = Targets.get("gsonMapParse");
+        legacy = Targets.get("legacySplitParse");
+    }
+
+    @Benchmark
+    public Object parseToStringMap() throws Exception {
+        return parse.call();
+    }
+
+    @Benchmark
+    public Object jsonFieldReader() throws Exception {
+        return streaming.call();
+    }
+
+    @Benchmark
+    public Object gsonMap() throws Exception {
+        return gson.call();
+    }
+
+    @Benchmark
+    public Object legacySplit() throws Exception {
+        return legacy.call();
+    }
+}
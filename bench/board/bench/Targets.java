@@ -0,0 +1,25 @@
+package board.bench;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+/* 기본 패키지의 BenchTargets 를 리플렉션으로 호출한다 (JMH 는 기본 패키지 벤치마크를 허용하지 않음). */
+final class Targets {
+    private static final String TARGETS_CLASS = "BenchTargets";
+
+    private Targets() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Callable<Object> get(String name) throws Exception {
+        return (Callable<Object>) method(name).invoke(null);
+    }
+
+    static Object call(String name) throws Exception {
+        return method(name).invoke(null);
+    }
+
+    private static Method method(String name) throws Exception {
+        return Class.forName(TARGETS_CLASS).getMethod(name);
+    }
+}
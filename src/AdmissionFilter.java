@@ -0,0 +1,46 @@
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+//  컨텍스트별 과부하 차단 필터: 실행기가 거절한 요청은 핸들러까지 가지 않고 503
+public class AdmissionFilter extends Filter {
+    private final String name;
+    private final RequestExecutor executor;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdmissionFilter(String name, RequestExecutor executor) {
+        this.name = name;
+        this.executor = executor;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (RequestExecutor.isShedding()) {
+            rejected.increment();
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            HttpUtil.sendJson(exchange, 503, SimpleJson.obj("error", "server_busy"));
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "admission control for " + name;
+    }
+
+    public String getName() { return name; }
+    public int getInFlight() { return inFlight.get(); }
+    //  큐는 모든 컨텍스트가 공유하므로 실행기 전체의 대기 요청 수
+    public int getQueueDepth() { return executor.getQueueDepth(); }
+    public long getRejectedCount() { return rejected.sum(); }
+}
@@ -0,0 +1,24 @@
+import java.time.LocalDateTime;
+
+//  첨부파일 메타데이터 (attachment 테이블 한 행). 내용은 AttachmentStore 에 sha256 이름으로 있다
+public class Attachment {
+    private long postId;
+    private String name;
+    private String sha256;
+    private long size;
+    private String contentType;
+    private LocalDateTime createdAt;
+
+    public long getPostId() { return postId; }
+    public void setPostId(long postId) { this.postId = postId; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public String getSha256() { return sha256; }
+    public void setSha256(String sha256) { this.sha256 = sha256; }
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
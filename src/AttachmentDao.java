@@ -0,0 +1,122 @@
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * attachment 테이블 (첨부파일 메타데이터만, 내용은 AttachmentStore).
+ * post 테이블에 BLOB 을 두지 않으므로 PostDao 의 SELECT * 는 그대로 가볍다.
+ * 글이 삭제되면 행은 ON DELETE CASCADE 로 함께 지워진다.
+ */
+public class AttachmentDao {
+    private final Metrics metrics = Metrics.getInstance();
+
+    /* 같은 글에 같은 이름이 있으면 새 내용으로 바꾼다. createdAt 이 채워진 첨부파일을 반환 */
+    public Attachment save(Attachment attachment) throws SQLException {
+        String sql = "SELECT createdAt FROM FINAL TABLE ("
+                + "MERGE INTO attachment (postId, name, sha256, size, contentType, createdAt) KEY (postId, name) "
+                + "VALUES (?, ?, ?, ?, ?, CURRENT_TIMESTAMP))";
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, attachment.getPostId());
+            ps.setString(2, attachment.getName());
+            ps.setString(3, attachment.getSha256());
+            ps.setLong(4, attachment.getSize());
+            ps.setString(5, attachment.getContentType());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Attachment save failed, no rows affected.");
+                }
+                attachment.setCreatedAt(rs.getTimestamp(1).toLocalDateTime());
+            }
+            return attachment;
+        } finally {
+            metrics.recordDb("saveAttachment", System.nanoTime() - dbStart);
+        }
+    }
+
+    public Attachment find(long postId, String name) throws SQLException {
+        String sql = "SELECT * FROM attachment WHERE postId = ? AND name = ?";
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, postId);
+            ps.setString(2, name);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? extractAttachment(rs) : null;
+            }
+        } finally {
+            metrics.recordDb("findAttachment", System.nanoTime() - dbStart);
+        }
+    }
+
+    public List<Attachment> findByPost(long postId) throws SQLException {
+        String sql = "SELECT * FROM attachment WHERE postId = ? ORDER BY name";
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, postId);
+
+            List<Attachment> attachments = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    attachments.add(extractAttachment(rs));
+                }
+            }
+            return attachments;
+        } finally {
+            metrics.recordDb("findAttachments", System.nanoTime() - dbStart);
+        }
+    }
+
+    /* 삭제된 행이 없으면 false */
+    public boolean delete(long postId, String name) throws SQLException {
+        String sql = "DELETE FROM attachment WHERE postId = ? AND name = ?";
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, postId);
+            ps.setString(2, name);
+            return ps.executeUpdate() > 0;
+        } finally {
+            metrics.recordDb("deleteAttachment", System.nanoTime() - dbStart);
+        }
+    }
+
+    //  파일 정리용: 한 행이라도 가리키는 내용 해시
+    public Set<String> findReferencedHashes() throws SQLException {
+        String sql = "SELECT DISTINCT sha256 FROM attachment";
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()
+        ) {
+            Set<String> hashes = new HashSet<>();
+            while (rs.next()) {
+                hashes.add(rs.getString(1));
+            }
+            return hashes;
+        } finally {
+            metrics.recordDb("findAttachmentHashes", System.nanoTime() - dbStart);
+        }
+    }
+
+    private Attachment extractAttachment(ResultSet rs) throws SQLException {
+        Attachment attachment = new Attachment();
+        attachment.setPostId(rs.getLong("postId"));
+        attachment.setName(rs.getString("name"));
+        attachment.setSha256(rs.getString("sha256"));
+        attachment.setSize(rs.getLong("size"));
+        attachment.setContentType(rs.getString("contentType"));
+        Timestamp createdAt = rs.getTimestamp("createdAt");
+        if (createdAt != null) {
+            attachment.setCreatedAt(createdAt.toLocalDateTime());
+        }
+        return attachment;
+    }
+}
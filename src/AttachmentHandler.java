@@ -0,0 +1,257 @@
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.sql.SQLException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/*
+ * 게시글 첨부파일 (PostHandler 가 /api/posts/{id}/attachments 경로를 넘긴다).
+ * - POST   /api/posts/{id}/attachments/{name} : 요청 본문(raw)을 그대로 저장, Content-Type 은 요청 헤더 값
+ * - GET    /api/posts/{id}/attachments        : 첨부파일 목록
+ * - GET    /api/posts/{id}/attachments/{name} : 내용. ETag 는 내용의 SHA-256 (강한 검증자),
+ *   Range: bytes=a-b / a- / -n 한 구간이면 206, 범위 밖이면 416. 여러 구간은 전체(200)로 응답
+ * - DELETE /api/posts/{id}/attachments/{name}
+ * 쓰기는 AuthFilter 가 로그인을 요구한다. 내용은 AttachmentStore, 메타데이터는 AttachmentDao.
+ * Content-Type 은 올린 사람이 정하므로 INLINE_TYPES 만 inline 으로, 그 밖은 Content-Disposition: attachment 로 보내고
+ * 모든 응답에 CSP sandbox 를 붙여 같은 출처에서 스크립트가 실행되지 않게 한다 (저장형 XSS 방지).
+ */
+public class AttachmentHandler {
+    private static final Logger logger = Logger.getLogger(AttachmentHandler.class.getName());
+
+    //  경로/헤더에 그대로 쓰므로 안전한 문자만 허용 (점으로 시작하는 이름 금지)
+    private static final Pattern NAME_PATTERN = Pattern.compile("^[A-Za-z0-9][A-Za-z0-9._-]{0,254}$");
+    private static final Pattern CONTENT_TYPE_PATTERN = Pattern.compile("^[\\w.+-]+/[\\w.+-]+(\\s*;[\\w\\s=.+\"-]*)?$");
+    private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+    //  API 와 같은 출처에서 브라우저가 바로 열어도 스크립트가 돌 수 없는 형식만 inline, 나머지(html, svg 등)는 다운로드
+    private static final Set<String> INLINE_TYPES = Set.of(
+            "image/png", "image/jpeg", "image/gif", "image/webp", "image/bmp",
+            "application/pdf", "text/plain");
+    //  H2 의 외래 키 위반 (업로드 도중 글이 삭제된 경우)
+    private static final String FK_VIOLATION = "23506";
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final AttachmentDao attachmentDao = new AttachmentDao();
+    private final AttachmentStore store = AttachmentStore.getInstance();
+    private final PostDao postDao;
+    private final Gson gson;
+    private final long maxAgeSeconds = AppConfig.getLong("board.attachments.maxAgeSeconds", 0L);
+
+    public AttachmentHandler(PostDao postDao, Gson gson) {
+        this.postDao = postDao;
+        this.gson = gson;
+    }
+
+    public void handleUpload(HttpExchange exchange, long postId, String name) throws IOException, SQLException {
+        if (!NAME_PATTERN.matcher(name).matches()) {
+            sendError(exchange, 400, "Invalid attachment name");
+            return;
+        }
+        String length = exchange.getRequestHeaders().getFirst("Content-Length");
+        try {
+            if (length != null && Long.parseLong(length.trim()) > store.getMaxBytes()) {
+                sendError(exchange, 413, "Attachment too large (max " + store.getMaxBytes() + " bytes)");
+                return;
+            }
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid Content-Length");
+            return;
+        }
+        //  없는 글이면 본문을 디스크에 쓰기 전에 거절
+        if (postDao.findById(postId) == null) {
+            sendError(exchange, 404, "Post not found");
+            return;
+        }
+
+        AttachmentStore.Blob blob;
+        try {
+            blob = store.store(exchange.getRequestBody());
+        } catch (AttachmentStore.TooLargeException e) {
+            sendError(exchange, 413, "Attachment too large (max " + store.getMaxBytes() + " bytes)");
+            return;
+        }
+
+        Attachment attachment = new Attachment();
+        attachment.setPostId(postId);
+        attachment.setName(name);
+        attachment.setSha256(blob.sha256);
+        attachment.setSize(blob.size);
+        attachment.setContentType(contentTypeOf(exchange.getRequestHeaders().getFirst("Content-Type")));
+        try {
+            attachmentDao.save(attachment);
+        } catch (SQLException e) {
+            if (FK_VIOLATION.equals(e.getSQLState())) {
+                sendError(exchange, 404, "Post not found");
+                return;
+            }
+            throw e;
+        }
+        exchange.getResponseHeaders().set("Location", "/api/posts/" + postId + "/attachments/" + name);
+        HttpUtil.sendJson(exchange, 201, gson.toJson(attachment));
+    }
+
+    public void handleList(HttpExchange exchange, long postId) throws IOException, SQLException {
+        List<Attachment> attachments = attachmentDao.findByPost(postId);
+        if (attachments.isEmpty() && postDao.findById(postId) == null) {
+            sendError(exchange, 404, "Post not found");
+            return;
+        }
+        JsonObject body = new JsonObject();
+        body.add("attachments", gson.toJsonTree(attachments));
+        HttpUtil.sendJson(exchange, 200, gson.toJson(body));
+    }
+
+    public void handleDownload(HttpExchange exchange, long postId, String name) throws IOException, SQLException {
+        Attachment attachment = attachmentDao.find(postId, name);
+        if (attachment == null) {
+            sendError(exchange, 404, "Attachment not found");
+            return;
+        }
+        String tag = attachment.getSha256();
+        long lastModified = attachment.getCreatedAt() == null ? 0
+                : attachment.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        List<String> tags = ConditionalGet.ifNoneMatch(exchange);
+        if ((tags != null && (tags.contains(tag) || tags.contains("*")))
+                || (lastModified > 0 && ConditionalGet.notModifiedSince(exchange, lastModified))) {
+            ConditionalGet.setValidators(exchange, tag, lastModified);
+            setCacheControl(exchange);
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        FileChannel file;
+        try {
+            file = store.open(tag);
+        } catch (NoSuchFileException e) {
+            logger.log(Level.SEVERE, "Attachment file missing: " + tag + " (post " + postId + ", " + name + ")");
+            sendError(exchange, 500, "Attachment file missing");
+            return;
+        }
+        try (FileChannel channel = file) {
+            long size = attachment.getSize();
+            Headers headers = exchange.getResponseHeaders();
+            ConditionalGet.setValidators(exchange, tag, lastModified);
+            setCacheControl(exchange);
+            headers.set("Accept-Ranges", "bytes");
+            //  사용자가 올린 내용이므로 브라우저가 형식을 추측하거나 스크립트를 실행하지 않도록
+            headers.set("X-Content-Type-Options", "nosniff");
+            headers.set("Content-Security-Policy", "sandbox");
+
+            //  If-Range 가 현재 ETag 와 다르면 (그 사이 내용이 바뀜) Range 를 무시하고 전체를 보낸다
+            String ifRange = exchange.getRequestHeaders().getFirst("If-Range");
+            long[] range = ifRange == null || ifRange.trim().equals("\"" + tag + "\"")
+                    ? parseRange(exchange.getRequestHeaders().getFirst("Range"), size) : null;
+            if (range == UNSATISFIABLE) {
+                headers.set("Content-Range", "bytes */" + size);
+                sendError(exchange, 416, "Range not satisfiable");
+                return;
+            }
+
+            headers.set("Content-Type", attachment.getContentType());
+            headers.set("Content-Disposition", (isInline(attachment.getContentType()) ? "inline" : "attachment")
+                    + "; filename=\"" + attachment.getName() + "\"");
+            long start = 0;
+            long count = size;
+            int status = 200;
+            if (range != null) {
+                start = range[0];
+                count = range[1] - range[0] + 1;
+                status = 206;
+                headers.set("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + size);
+            }
+            exchange.sendResponseHeaders(status, count == 0 ? -1 : count);
+            if (count == 0) {
+                exchange.close();
+                return;
+            }
+            try (OutputStream os = exchange.getResponseBody()) {
+                store.transfer(channel, start, count, Channels.newChannel(os));
+            } catch (IOException e) {
+                //  헤더를 이미 보냈으므로 연결을 끊는다 (대개 클라이언트가 먼저 끊은 경우)
+                logger.log(Level.FINE, "Attachment download aborted", e);
+                exchange.close();
+            }
+        }
+    }
+
+    public void handleDelete(HttpExchange exchange, long postId, String name) throws IOException, SQLException {
+        if (attachmentDao.delete(postId, name)) {
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        } else {
+            sendError(exchange, 404, "Attachment not found");
+        }
+    }
+
+    /*
+     * Range 헤더의 한 구간을 [시작, 끝] (끝 포함) 으로. 헤더가 없거나 해석할 수 없거나 여러 구간이면 null
+     * (전체를 보냄), 파일 범위 밖이면 UNSATISFIABLE.
+     */
+    static long[] parseRange(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) { return null; }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) { return null; }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                //  마지막 n 바이트
+                if (last.isEmpty()) { return null; }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) { return UNSATISFIABLE; }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (end < start) { return null; }
+                if (start >= size) { return UNSATISFIABLE; }
+                end = Math.min(end, size - 1);
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    //  URL 이 내용 주소가 아니므로 (같은 이름으로 다시 올릴 수 있음) 기본은 매번 ETag 로 확인
+    private void setCacheControl(HttpExchange exchange) {
+        if (maxAgeSeconds > 0) {
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=" + maxAgeSeconds);
+        }
+    }
+
+    private static boolean isInline(String contentType) {
+        int semi = contentType.indexOf(';');
+        String mediaType = (semi < 0 ? contentType : contentType.substring(0, semi)).trim().toLowerCase(Locale.ROOT);
+        return INLINE_TYPES.contains(mediaType);
+    }
+
+    private static String contentTypeOf(String header) {
+        if (header == null) { return DEFAULT_CONTENT_TYPE; }
+        String type = header.trim();
+        return type.length() <= 100 && CONTENT_TYPE_PATTERN.matcher(type).matches() ? type : DEFAULT_CONTENT_TYPE;
+    }
+
+    private void sendError(HttpExchange exchange, int status, String message) {
+        JsonObject error = new JsonObject();
+        error.addProperty("error", message);
+        HttpUtil.sendJson(exchange, status, gson.toJson(error));
+    }
+}
@@ -0,0 +1,323 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * 첨부파일 내용 저장소 (로컬 파일시스템, 내용 주소 방식).
+ * - 파일 이름은 내용의 SHA-256 (root/ab/abcdef...), 같은 내용은 글/이름이 달라도 한 벌만 저장한다
+ * - 업로드는 요청 본문을 버퍼 하나로 읽어 해시를 갱신하면서 FileChannel 로 임시 파일에 쓰고,
+ *   fsync 후 해시 이름으로 옮긴다 (본문 전체를 메모리에 두지 않음, 옮기기 전에는 보이지 않음)
+ * - 다운로드는 요청한 구간만 FileChannel.transferTo 또는 메모리 매핑으로 응답 스트림에 넘긴다
+ * 메타데이터(글, 이름, 해시)는 AttachmentDao 가 H2 에 둔다. 파일은 여러 행이 공유할 수 있으므로
+ * 행이 지워질 때 (삭제, 같은 이름으로 교체, 글 삭제 CASCADE, 저장 실패) 바로 지우지 않고,
+ * gcIntervalMs 마다 어떤 행도 가리키지 않는 파일을 정리한다. 업로드 도중(파일은 썼지만 행은 아직)인
+ * 파일을 지우지 않도록 수정 시각이 gcGraceMs 보다 오래된 것만 지우고, 이미 있는 내용을 다시 올리면
+ * 수정 시각을 갱신한다. tmp/ 에 남은 임시 파일(비정상 종료)은 시작할 때 비운다.
+ */
+public class AttachmentStore {
+    private static final Logger logger = Logger.getLogger(AttachmentStore.class.getName());
+    private static final int BUFFER_SIZE = 64 * 1024;
+    //  큰 파일도 주소 공간을 한 번에 많이 잡지 않도록 이만큼씩 매핑한다
+    private static final long MAP_WINDOW = 8L * 1024 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    //  Singleton
+    private static final AttachmentStore INSTANCE = new AttachmentStore(
+            Paths.get(AppConfig.get("board.attachments.dir", "./data/attachments")),
+            AppConfig.getLong("board.attachments.maxBytes", 10L * 1024 * 1024),
+            AppConfig.getLong("board.attachments.mmapMinBytes", 1024L * 1024),
+            AppConfig.getLong("board.attachments.gcIntervalMs", 60L * 60 * 1000),
+            AppConfig.getLong("board.attachments.gcGraceMs", 60L * 60 * 1000));
+    public static AttachmentStore getInstance() {
+        return INSTANCE;
+    }
+
+    //  업로드가 maxBytes 를 넘으면 (임시 파일은 지운 뒤) 던진다
+    public static class TooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public TooLargeException(long maxBytes) {
+            super("attachment exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    //  저장된 내용의 해시와 크기
+    public static class Blob {
+        public final String sha256;
+        public final long size;
+
+        Blob(String sha256, long size) {
+            this.sha256 = sha256;
+            this.size = size;
+        }
+    }
+
+    private final Path root;
+    private final Path tmp;
+    private final long maxBytes;
+    private final long mmapMinBytes;
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+    private final long gcIntervalMillis;
+    private final long gcGraceMillis;
+    //  업로드의 "이미 있음 -> 수정 시각 갱신" 과 정리의 "오래됨 -> 삭제" 가 엇갈리지 않도록
+    private final Object gcLock = new Object();
+    private final LongAdder collected = new LongAdder();
+    private final LongAdder collectedBytes = new LongAdder();
+    private final LongAdder failedCollections = new LongAdder();
+    private volatile ScheduledExecutorService scheduler;
+    private volatile AttachmentDao attachmentDao;
+
+    private AttachmentStore(Path root, long maxBytes, long mmapMinBytes, long gcIntervalMillis, long gcGraceMillis) {
+        this.root = root.toAbsolutePath().normalize();
+        this.tmp = this.root.resolve("tmp");
+        this.maxBytes = maxBytes;
+        this.mmapMinBytes = mmapMinBytes;
+        this.gcIntervalMillis = gcIntervalMillis;
+        this.gcGraceMillis = gcGraceMillis;
+        try {
+            Files.createDirectories(tmp);
+            clearTmp();
+        } catch (IOException e) {
+            throw new UncheckedIOException("첨부파일 디렉터리 생성 실패: " + tmp, e);
+        }
+    }
+
+    /* 주기 정리 시작 (gcIntervalMs <= 0 이면 하지 않음) */
+    public synchronized void start(AttachmentDao attachmentDao) {
+        if (gcIntervalMillis <= 0 || scheduler != null) { return; }
+        this.attachmentDao = attachmentDao;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "attachment-gc");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::collectQuietly, gcIntervalMillis, gcIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    //  DatabaseUtil.shutdown() 전에 호출 (정리 도중 DB 가 닫히지 않도록)
+    public void shutdown() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s == null) { return; }
+        s.shutdownNow();
+        try {
+            s.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getMaxBytes() { return maxBytes; }
+
+    /* 본문을 끝까지 읽어 저장하고 해시/크기를 반환 (이미 같은 내용이 있으면 새로 쓰지 않는다) */
+    public Blob store(InputStream body) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        Path upload = Files.createTempFile(tmp, "upload-", ".tmp");
+        try {
+            long size = 0;
+            try (ReadableByteChannel in = Channels.newChannel(body);
+                 FileChannel out = FileChannel.open(upload, StandardOpenOption.WRITE)) {
+                while (in.read(buffer) >= 0) {
+                    buffer.flip();
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new TooLargeException(maxBytes);
+                    }
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+                //  H2 의 메타데이터 행이 커밋된 뒤 파일이 사라지지 않도록 옮기기 전에 디스크에 내린다
+                out.force(false);
+            }
+            bytesIn.add(size);
+
+            String sha256 = hex(digest.digest());
+            Path target = pathOf(sha256);
+            synchronized (gcLock) {
+                if (Files.exists(target)) {
+                    //  행이 저장되기 전에 정리되지 않도록 유예 기간을 다시 시작한다
+                    Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+                    deduplicated.increment();
+                } else {
+                    Files.createDirectories(target.getParent());
+                    try {
+                        Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+                        stored.increment();
+                    } catch (FileAlreadyExistsException e) {
+                        //  같은 내용이 동시에 올라온 경우
+                        deduplicated.increment();
+                    }
+                }
+            }
+            return new Blob(sha256, size);
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    /* 내용 파일을 연다 (없으면 NoSuchFileException) */
+    public FileChannel open(String sha256) throws IOException {
+        return FileChannel.open(pathOf(sha256), StandardOpenOption.READ);
+    }
+
+    /*
+     * file 의 [position, position + count) 를 out 으로 보낸다.
+     * HttpExchange 의 응답은 소켓 채널이 아닌 스트림이라 커널 sendfile 까지는 가지 못한다.
+     * 작은 구간은 transferTo (JDK 의 직접 버퍼 경유), mmapMinBytes 이상은 MAP_WINDOW 씩 매핑해
+     * 페이지 캐시에서 바로 응답 스트림으로 복사한다 (힙에 파일을 읽어 두는 단계가 없음).
+     */
+    public void transfer(FileChannel file, long position, long count, WritableByteChannel out) throws IOException {
+        long end = position + count;
+        if (count >= mmapMinBytes) {
+            while (position < end) {
+                long window = Math.min(MAP_WINDOW, end - position);
+                MappedByteBuffer mapped = file.map(FileChannel.MapMode.READ_ONLY, position, window);
+                while (mapped.hasRemaining()) {
+                    out.write(mapped);
+                }
+                position += window;
+                bytesOut.add(window);
+            }
+            return;
+        }
+        while (position < end) {
+            long n = file.transferTo(position, end - position, out);
+            if (n <= 0) {
+                throw new IOException("attachment truncated at " + position);
+            }
+            position += n;
+            bytesOut.add(n);
+        }
+    }
+
+    /*
+     * attachment 행이 가리키지 않고 수정 시각이 gcGraceMs 보다 오래된 파일을 지운다.
+     * 참조 목록을 먼저 읽으므로 그 뒤에 저장된 행의 파일은 유예 기간 덕분에 남는다. 지운 파일 수를 반환
+     */
+    public int collectGarbage() throws IOException, SQLException {
+        AttachmentDao dao = attachmentDao;
+        if (dao == null) { return 0; }
+        Set<String> referenced = dao.findReferencedHashes();
+        long cutoff = System.currentTimeMillis() - gcGraceMillis;
+        int deleted = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root, p -> p.getFileName().toString().length() == 2)) {
+            for (Path dir : dirs) {
+                if (!Files.isDirectory(dir)) { continue; }
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                    for (Path file : files) {
+                        if (!referenced.contains(file.getFileName().toString()) && deleteIfStale(file, cutoff)) {
+                            deleted++;
+                        }
+                    }
+                }
+            }
+        }
+        return deleted;
+    }
+
+    private boolean deleteIfStale(Path file, long cutoff) throws IOException {
+        synchronized (gcLock) {
+            if (!Files.isRegularFile(file) || Files.getLastModifiedTime(file).toMillis() >= cutoff) {
+                return false;
+            }
+            long size = Files.size(file);
+            if (!Files.deleteIfExists(file)) { return false; }
+            collected.increment();
+            collectedBytes.add(size);
+            return true;
+        }
+    }
+
+    private void collectQuietly() {
+        try {
+            int deleted = collectGarbage();
+            if (deleted > 0) {
+                logger.info("참조되지 않는 첨부파일 " + deleted + "개 정리");
+            }
+        } catch (IOException | SQLException | RuntimeException e) {
+            failedCollections.increment();
+            logger.log(Level.WARNING, "첨부파일 정리 실패 (다음 주기에 재시도)", e);
+        }
+    }
+
+    //  비정상 종료로 남은 업로드 임시 파일 (시작 시, 아직 업로드가 없을 때만 호출)
+    private void clearTmp() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(tmp)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    public long getStoredCount() { return stored.sum(); }
+    public long getDeduplicatedCount() { return deduplicated.sum(); }
+    public long getBytesIn() { return bytesIn.sum(); }
+    public long getBytesOut() { return bytesOut.sum(); }
+    public long getCollectedCount() { return collected.sum(); }
+    public long getCollectedBytes() { return collectedBytes.sum(); }
+    public long getFailedCollections() { return failedCollections.sum(); }
+
+    //  한 디렉터리에 파일이 몰리지 않도록 해시 앞 두 글자로 나눈다
+    private Path pathOf(String sha256) {
+        if (sha256 == null || sha256.length() != 64) {
+            throw new IllegalArgumentException("invalid sha256: " + sha256);
+        }
+        for (int i = 0; i < sha256.length(); i++) {
+            if (Character.digit(sha256.charAt(i), 16) < 0) {
+                throw new IllegalArgumentException("invalid sha256: " + sha256);
+            }
+        }
+        return root.resolve(sha256.substring(0, 2)).resolve(sha256);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            out[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(out);
+    }
+}
@@ -0,0 +1,55 @@
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Map;
+
+/*
+ * 쓰기 요청(POST/PUT/DELETE)에 "Authorization: Bearer <JWT>" 를 요구하는 필터.
+ * 검증은 JwtVerifier(스레드별 Mac + 검증된 토큰 LRU)로 하므로 반복 요청은 HMAC 계산도 생략된다.
+ * 인증(유효한 토큰인지)만 확인하고 권한은 보지 않는다: 로그인한 사용자는 누구의 글이든 수정/삭제할 수 있고,
+ * 글의 author 는 요청 본문의 표시 이름 그대로다 (회원 id 와 연결되어 있지 않음).
+ */
+public class AuthFilter extends Filter {
+    private static final String BEARER = "Bearer ";
+
+    private final JwtVerifier verifier;
+
+    public AuthFilter(JwtVerifier verifier) {
+        this.verifier = verifier;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!requiresAuth(exchange.getRequestMethod())) {
+            chain.doFilter(exchange);
+            return;
+        }
+
+        if (authenticate(exchange.getRequestHeaders().getFirst("Authorization")) == null) {
+            exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+            HttpUtil.sendJson(exchange, 401, SimpleJson.obj("error", "unauthorized"));
+            return;
+        }
+        chain.doFilter(exchange);
+    }
+
+    /* Authorization 헤더 값을 검증해 클레임 반환, 실패 시 null */
+    public Map<String, Object> authenticate(String authorization) {
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return verifier.verify(authorization.substring(BEARER.length()).trim());
+    }
+
+    @Override
+    public String description() {
+        return "JWT bearer authentication for write requests";
+    }
+
+    private static boolean requiresAuth(String method) {
+        return "POST".equalsIgnoreCase(method)
+                || "PUT".equalsIgnoreCase(method)
+                || "DELETE".equalsIgnoreCase(method);
+    }
+}
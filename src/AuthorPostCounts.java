@@ -0,0 +1,57 @@
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * 작성자별 게시글 수 (작성자 피드의 total).
+ * 요청마다 COUNT(*) 를 하지 않도록 시작 시 rebuild() 로 한 번 세고,
+ * 이후에는 PostDao 의 save/saveAll/saveGroup/update(작성자 변경)/delete 가 커밋된 뒤 증분 반영한다.
+ * 글이 0 개가 된 작성자는 맵에서 지운다.
+ */
+public class AuthorPostCounts {
+    //  Singleton
+    private static final AuthorPostCounts INSTANCE = new AuthorPostCounts();
+    public static AuthorPostCounts getInstance() {
+        return INSTANCE;
+    }
+
+    private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+    private AuthorPostCounts() {
+    }
+
+    public void rebuild(PostDao postDao) throws SQLException {
+        Map<String, Long> fresh = postDao.countByAuthor();
+        counts.clear();
+        counts.putAll(fresh);
+    }
+
+    public long get(String author) {
+        Long count = counts.get(author);
+        return count == null ? 0 : count;
+    }
+
+    public void added(String author) {
+        add(author, 1);
+    }
+
+    public void removed(String author) {
+        add(author, -1);
+    }
+
+    public void moved(String from, String to) {
+        if (from == null || from.equals(to)) { return; }
+        removed(from);
+        added(to);
+    }
+
+    public int size() {
+        return counts.size();
+    }
+
+    //  merge 는 키 단위로 원자적이며, 결과가 null 이면 항목을 지운다
+    private void add(String author, long delta) {
+        if (author == null) { return; }
+        counts.merge(author, delta, (a, b) -> a + b <= 0 ? null : a + b);
+    }
+}
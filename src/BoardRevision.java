@@ -0,0 +1,40 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * 게시판 전체 리비전. PostDao 의 쓰기(등록/수정/삭제)가 반영된 뒤 1 씩 올린다.
+ * 목록/단건 ETag 에 넣어, 클라이언트가 가진 리비전이 그대로면 DB 를 보지 않고 304 로 응답한다.
+ * 카운터는 메모리에만 있으므로 재시작 후 같은 숫자가 다른 상태를 가리키지 않도록 기동 시각(epoch)을 앞에 붙인다.
+ */
+public class BoardRevision {
+    //  Singleton
+    private static final BoardRevision INSTANCE = new BoardRevision();
+    public static BoardRevision getInstance() {
+        return INSTANCE;
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong revision = new AtomicLong();
+    //  마지막 쓰기 시각 (쓰기가 없었으면 기동 시각) - Last-Modified 용
+    private volatile long lastModifiedMillis = System.currentTimeMillis();
+
+    private BoardRevision() {
+    }
+
+    public long current() {
+        return revision.get();
+    }
+
+    //  ETag 에 넣는 "epoch-revision"
+    public String tag() {
+        return epoch + "-" + revision.get();
+    }
+
+    public long lastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+
+    public void bump() {
+        lastModifiedMillis = System.currentTimeMillis();
+        revision.incrementAndGet();
+    }
+}
@@ -0,0 +1,384 @@
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpPrincipal;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/*
+ * Accept-Encoding 협상 후 응답 본문을 gzip/deflate 로 압축하는 필터.
+ * 핸들러에는 sendResponseHeaders/getResponseBody 를 가로채는 HttpExchange 를 넘기고,
+ * 압축하기로 하면 Content-Length 대신 chunked 로 보내며 응답 스트림에 바로 압축해 쓴다 (중간 byte[] 없음).
+ * - 고정 길이 응답: 길이가 minBytes 이상일 때만 압축
+ * - chunked 응답(길이 0): 크기를 미리 알 수 없으므로 항상 압축
+ * - JSON/텍스트만 대상, 본문 없는 응답(204/304, 길이 -1)이나 이미 Content-Encoding 이 있으면 그대로
+ * - Accept-Ranges 를 단 응답(첨부파일)은 Range/Content-Range 가 원본 바이트 기준이므로 그대로
+ * - 압축 대상인 응답에는 협상 여부와 상관없이 Vary: Accept-Encoding (304 포함)
+ * - 강한 ETag 는 인코딩마다 달라야 하므로 (RFC 9110 8.8.3) 압축한 응답의 ETag 에 "-gzip" 처럼 붙이고,
+ *   If-None-Match 에서는 같은 접미어를 떼어 핸들러가 원래 태그로 비교하게 한다 (약한 ETag 는 그대로)
+ * 라우트별로 압축 전후 바이트와 압축에 쓴 시간(소켓 쓰기 시간 제외)을 기록한다.
+ */
+public class CompressionFilter extends Filter {
+    private static final int MAX_ROUTES = 64;
+
+    public static class RouteStats {
+        public final LongAdder responses = new LongAdder();
+        public final LongAdder compressed = new LongAdder();
+        public final LongAdder skippedSmall = new LongAdder();
+        public final LongAdder bytesIn = new LongAdder();
+        public final LongAdder bytesOut = new LongAdder();
+        public final LatencyHistogram compressNanos = new LatencyHistogram();
+
+        //  압축된 응답의 압축 후/전 비율 (작을수록 잘 줄어든 것)
+        public double ratio() {
+            long in = bytesIn.sum();
+            return in == 0 ? 1.0 : (double) bytesOut.sum() / in;
+        }
+    }
+
+    private final boolean enabled;
+    private final int minBytes;
+    private final int level;
+    private final Map<String, RouteStats> stats = new ConcurrentHashMap<>();
+
+    public CompressionFilter(boolean enabled, int minBytes, int level) {
+        this.enabled = enabled;
+        this.minBytes = minBytes;
+        this.level = level;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        if (!enabled) {
+            chain.doFilter(exchange);
+            return;
+        }
+        //  협상되지 않아도 감싼다 (압축 대상 응답에 Vary 를 붙이기 위해)
+        String encoding = negotiate(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+        CompressingExchange wrapped = new CompressingExchange(exchange, encoding,
+                encoding == null ? null : statsFor(HttpUtil.routeOf(exchange)));
+        //  핸들러가 예외로 끝나면 마무리하지 않는다. 압축 스트림을 닫으면 마지막 청크가 나가
+        //  잘린 응답이 정상으로 끝난 것처럼 보이므로, 연결 정리는 HttpServer 에 맡긴다
+        chain.doFilter(wrapped);
+        wrapped.finish();
+    }
+
+    @Override
+    public String description() {
+        return "gzip/deflate response compression";
+    }
+
+    public Map<String, RouteStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private RouteStats statsFor(String route) {
+        RouteStats s = stats.get(route);
+        if (s != null) { return s; }
+        //  잘못된 경로로 라우트 이름이 끝없이 늘지 않도록 상한
+        if (stats.size() >= MAX_ROUTES) { route = "other"; }
+        return stats.computeIfAbsent(route, r -> new RouteStats());
+    }
+
+    //  "gzip;q=0.8, deflate, br" -> gzip 우선, 그다음 deflate. q=0 은 거부로 본다. 둘 다 안 되면 null
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) { return null; }
+        float gzip = -1;
+        float deflate = -1;
+        float any = -1;
+        for (String part : acceptEncoding.split(",")) {
+            String token = part.trim();
+            float q = 1;
+            int semi = token.indexOf(';');
+            if (semi >= 0) {
+                String param = token.substring(semi + 1).trim();
+                token = token.substring(0, semi).trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Float.parseFloat(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (token.equalsIgnoreCase("gzip") || token.equalsIgnoreCase("x-gzip")) {
+                gzip = q;
+            } else if (token.equalsIgnoreCase("deflate")) {
+                deflate = q;
+            } else if (token.equals("*")) {
+                any = q;
+            }
+        }
+        if (gzip < 0) { gzip = any; }
+        if (deflate < 0) { deflate = any; }
+        if (gzip > 0 && gzip >= deflate) { return "gzip"; }
+        if (deflate > 0) { return "deflate"; }
+        return null;
+    }
+
+    //  If-None-Match 의 강한 태그 중 suffix 로 끝나는 것에서 suffix 를 뗀다. 뗀 태그가 없으면 null
+    static String stripTagSuffix(String ifNoneMatch, String suffix) {
+        StringBuilder sb = new StringBuilder(ifNoneMatch.length());
+        boolean changed = false;
+        for (String part : ifNoneMatch.split(",")) {
+            String tag = part.trim();
+            if (tag.startsWith("\"") && tag.endsWith("\"") && tag.length() > suffix.length() + 2
+                    && tag.regionMatches(tag.length() - 1 - suffix.length(), suffix, 0, suffix.length())) {
+                tag = tag.substring(0, tag.length() - 1 - suffix.length()) + "\"";
+                changed = true;
+            }
+            if (sb.length() > 0) { sb.append(", "); }
+            sb.append(tag);
+        }
+        return changed ? sb.toString() : null;
+    }
+
+    private static boolean isCompressible(String contentType) {
+        if (contentType == null) { return false; }
+        String type = contentType.toLowerCase();
+        //  SSE 는 프레임마다 바로 보내야 하므로 압축 스트림에 담지 않는다
+        if (type.startsWith("text/event-stream")) { return false; }
+        return type.startsWith("application/json") || type.startsWith("text/")
+                || type.startsWith("application/javascript") || type.startsWith("application/xml");
+    }
+
+    //  압축 여부를 sendResponseHeaders 시점에 정하는 HttpExchange 위임 래퍼
+    private class CompressingExchange extends HttpExchange {
+        private final HttpExchange delegate;
+        //  null 이면 압축하지 않고 Vary 만 붙인다
+        private final String encoding;
+        private final RouteStats routeStats;
+        //  If-None-Match 의 압축 태그 접미어를 뗀 요청 헤더 (뗄 것이 없으면 원래 헤더)
+        private final Headers requestHeaders;
+        private final boolean encodedTagRequested;
+        private OutputStream body;
+        private CompressingStream compressing;
+
+        CompressingExchange(HttpExchange delegate, String encoding, RouteStats routeStats) {
+            this.delegate = delegate;
+            this.encoding = encoding;
+            this.routeStats = routeStats;
+            String ifNoneMatch = delegate.getRequestHeaders().getFirst("If-None-Match");
+            String stripped = encoding == null || ifNoneMatch == null ? null : stripTagSuffix(ifNoneMatch, "-" + encoding);
+            if (stripped != null) {
+                //  요청 헤더는 수정할 수 없으므로 복사본을 넘긴다
+                Headers copy = new Headers();
+                copy.putAll(delegate.getRequestHeaders());
+                copy.set("If-None-Match", stripped);
+                this.requestHeaders = copy;
+                this.encodedTagRequested = true;
+            } else {
+                this.requestHeaders = delegate.getRequestHeaders();
+                this.encodedTagRequested = false;
+            }
+        }
+
+        @Override
+        public void sendResponseHeaders(int rCode, long responseLength) throws IOException {
+            Headers headers = delegate.getResponseHeaders();
+            if (rCode == 304) {
+                //  클라이언트가 압축본의 태그로 물었으면 같은 태그로 답한다
+                headers.add("Vary", "Accept-Encoding");
+                if (encodedTagRequested) { tagWithEncoding(headers); }
+                delegate.sendResponseHeaders(rCode, responseLength);
+                return;
+            }
+            boolean eligible = responseLength >= 0 && rCode != 204
+                    && !headers.containsKey("Content-Encoding")
+                    && !headers.containsKey("Accept-Ranges")
+                    && isCompressible(headers.getFirst("Content-Type"));
+            if (!eligible) {
+                delegate.sendResponseHeaders(rCode, responseLength);
+                return;
+            }
+            headers.add("Vary", "Accept-Encoding");
+            if (encoding == null) {
+                delegate.sendResponseHeaders(rCode, responseLength);
+                return;
+            }
+            routeStats.responses.increment();
+            if (responseLength > 0 && responseLength < minBytes) {
+                routeStats.skippedSmall.increment();
+                delegate.sendResponseHeaders(rCode, responseLength);
+                return;
+            }
+
+            headers.set("Content-Encoding", encoding);
+            tagWithEncoding(headers);
+            headers.remove("Content-Length");
+            delegate.sendResponseHeaders(rCode, 0);
+            compressing = new CompressingStream(delegate.getResponseBody(), encoding, level, routeStats);
+            body = compressing;
+            routeStats.compressed.increment();
+        }
+
+        @Override
+        public OutputStream getResponseBody() {
+            return body != null ? body : delegate.getResponseBody();
+        }
+
+        @Override
+        public void close() {
+            finish();
+            delegate.close();
+        }
+
+        //  핸들러가 스트림을 닫지 않고 끝났어도 압축 스트림을 마무리한다
+        void finish() {
+            if (compressing != null) {
+                try {
+                    compressing.close();
+                } catch (IOException ignored) {
+                    //  클라이언트가 먼저 끊은 경우
+                }
+            }
+        }
+
+        //  강한 ETag "x" -> "x-gzip"
+        private void tagWithEncoding(Headers headers) {
+            String tag = headers.getFirst("ETag");
+            if (tag != null && tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                headers.set("ETag", tag.substring(0, tag.length() - 1) + "-" + encoding + "\"");
+            }
+        }
+
+        @Override public Headers getRequestHeaders() { return requestHeaders; }
+        @Override public Headers getResponseHeaders() { return delegate.getResponseHeaders(); }
+        @Override public URI getRequestURI() { return delegate.getRequestURI(); }
+        @Override public String getRequestMethod() { return delegate.getRequestMethod(); }
+        @Override public HttpContext getHttpContext() { return delegate.getHttpContext(); }
+        @Override public InputStream getRequestBody() { return delegate.getRequestBody(); }
+        @Override public InetSocketAddress getRemoteAddress() { return delegate.getRemoteAddress(); }
+        @Override public int getResponseCode() { return delegate.getResponseCode(); }
+        @Override public InetSocketAddress getLocalAddress() { return delegate.getLocalAddress(); }
+        @Override public String getProtocol() { return delegate.getProtocol(); }
+        @Override public Object getAttribute(String name) { return delegate.getAttribute(name); }
+        @Override public void setAttribute(String name, Object value) { delegate.setAttribute(name, value); }
+        @Override public void setStreams(InputStream i, OutputStream o) { delegate.setStreams(i, o); }
+        @Override public HttpPrincipal getPrincipal() { return delegate.getPrincipal(); }
+    }
+
+    /*
+     * 압축 스트림 -> 바이트 수/소켓 쓰기 시간을 세는 스트림 -> 원래 응답 스트림.
+     * 쓰기에 걸린 전체 시간에서 소켓 쓰기 시간을 빼 압축 자체에 쓴 시간을 구한다.
+     */
+    private static final class CompressingStream extends FilterOutputStream {
+        private final SinkCounter sink;
+        private final Deflater deflater;
+        private final RouteStats routeStats;
+        private long bytesIn;
+        private long elapsedNanos;
+        private boolean closed;
+
+        CompressingStream(OutputStream out, String encoding, int level, RouteStats routeStats) throws IOException {
+            super(null);
+            this.sink = new SinkCounter(out);
+            this.routeStats = routeStats;
+            long start = System.nanoTime();
+            if ("gzip".equals(encoding)) {
+                this.deflater = null;
+                this.out = new GZIPOutputStream(sink, 8192) {
+                    {
+                        def.setLevel(level);
+                    }
+                };
+            } else {
+                //  HTTP 의 deflate 는 zlib 형식 (nowrap = false)
+                this.deflater = new Deflater(level, false);
+                this.out = new DeflaterOutputStream(sink, deflater, 8192);
+            }
+            elapsedNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            out.write(b);
+            elapsedNanos += System.nanoTime() - start;
+            bytesIn++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            elapsedNanos += System.nanoTime() - start;
+            bytesIn += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = System.nanoTime();
+            out.flush();
+            elapsedNanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) { return; }
+            closed = true;
+            long start = System.nanoTime();
+            try {
+                out.close();
+            } finally {
+                elapsedNanos += System.nanoTime() - start;
+                if (deflater != null) { deflater.end(); }
+                routeStats.bytesIn.add(bytesIn);
+                routeStats.bytesOut.add(sink.bytes);
+                routeStats.compressNanos.record(elapsedNanos - sink.nanos);
+            }
+        }
+    }
+
+    private static final class SinkCounter extends FilterOutputStream {
+        long bytes;
+        long nanos;
+
+        SinkCounter(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            long start = System.nanoTime();
+            out.write(b);
+            nanos += System.nanoTime() - start;
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            out.write(b, off, len);
+            nanos += System.nanoTime() - start;
+            bytes += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            long start = System.nanoTime();
+            out.flush();
+            nanos += System.nanoTime() - start;
+        }
+
+        @Override
+        public void close() throws IOException {
+            long start = System.nanoTime();
+            out.close();
+            nanos += System.nanoTime() - start;
+        }
+    }
+}
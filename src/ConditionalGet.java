@@ -0,0 +1,76 @@
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * ETag / Last-Modified 조건부 GET 도우미.
+ * - If-None-Match 가 있으면 그것만 보고, 없을 때만 If-Modified-Since 를 본다 (RFC 9110 13.2.2)
+ * - Last-Modified 는 초 단위라 같은 초 안의 변경은 구분하지 못한다. 정확한 비교는 ETag 로 한다
+ * - 응답에는 Cache-Control: no-cache 를 붙여 클라이언트가 매번 검증 요청을 보내게 한다
+ */
+public class ConditionalGet {
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    //  If-None-Match 의 엔티티 태그들 (따옴표와 W/ 접두어 제거, "*" 는 그대로). 헤더가 없으면 null
+    public static List<String> ifNoneMatch(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("If-None-Match");
+        if (header == null) { return null; }
+
+        List<String> tags = new ArrayList<>(2);
+        for (String part : header.split(",")) {
+            String tag = part.trim();
+            if (tag.startsWith("W/")) { tag = tag.substring(2); }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (!tag.isEmpty()) { tags.add(tag); }
+        }
+        return tags;
+    }
+
+    //  If-None-Match 가 없고 If-Modified-Since 가 lastModifiedMillis(초 단위) 이후면 true
+    public static boolean notModifiedSince(HttpExchange ex, long lastModifiedMillis) {
+        if (ex.getRequestHeaders().containsKey("If-None-Match")) { return false; }
+        String header = ex.getRequestHeaders().getFirst("If-Modified-Since");
+        if (header == null) { return false; }
+        try {
+            long since = ZonedDateTime.parse(header.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toEpochSecond();
+            return lastModifiedMillis / 1000 <= since;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    //  200 응답 전에 검증자 헤더 설정 (tag 가 null 이면 ETag, lastModifiedMillis <= 0 이면 Last-Modified 생략)
+    public static void setValidators(HttpExchange ex, String tag, long lastModifiedMillis) {
+        setValidators(ex, tag, lastModifiedMillis, false);
+    }
+
+    //  weak: 본문에 검증자와 무관하게 바뀌는 값(조회수 등)이 섞여 있어 바이트 단위 동일성을 보장하지 않는 경우
+    public static void setValidators(HttpExchange ex, String tag, long lastModifiedMillis, boolean weak) {
+        if (tag != null) {
+            ex.getResponseHeaders().set("ETag", (weak ? "W/\"" : "\"") + tag + "\"");
+        }
+        if (lastModifiedMillis > 0) {
+            ex.getResponseHeaders().set("Last-Modified", HTTP_DATE.format(Instant.ofEpochMilli(lastModifiedMillis)));
+        }
+        ex.getResponseHeaders().set("Cache-Control", "no-cache");
+    }
+
+    public static void sendNotModified(HttpExchange ex, String tag, long lastModifiedMillis) throws IOException {
+        sendNotModified(ex, tag, lastModifiedMillis, false);
+    }
+
+    public static void sendNotModified(HttpExchange ex, String tag, long lastModifiedMillis, boolean weak) throws IOException {
+        setValidators(ex, tag, lastModifiedMillis, weak);
+        ex.sendResponseHeaders(304, -1);
+        ex.close();
+    }
+}
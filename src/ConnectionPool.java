@@ -0,0 +1,374 @@
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * 크기 제한이 있는 JDBC 커넥션 풀.
+ * - 최대 maxSize개까지 대여, acquireTimeout 안에 못 빌리면 SQLTimeoutException
+ * - 대여 시 isValid()로 검증, idleTimeout이 지난 유휴 커넥션은 minSize까지 정리
+ * - 커넥션마다 PreparedStatement를 LRU로 캐싱 (close()는 실제로 닫지 않고 파라미터만 초기화)
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    public static class Stats {
+        public final int active;
+        public final int idle;
+        public final int total;
+        public final int waiters;
+        public final long acquireCount;
+        public final double avgAcquireMillis;
+        public final long statementCacheHits;
+        public final long statementCacheMisses;
+        public final long statementExecutions;
+
+        public Stats(int active, int idle, int total, int waiters, long acquireCount, double avgAcquireMillis,
+                     long statementCacheHits, long statementCacheMisses, long statementExecutions) {
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.waiters = waiters;
+            this.acquireCount = acquireCount;
+            this.avgAcquireMillis = avgAcquireMillis;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+            this.statementExecutions = statementExecutions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, total=%d, waiters=%d, acquires=%d, avgAcquire=%.3fms, stmtCache=%d/%d, executions=%d",
+                    active, idle, total, waiters, acquireCount, avgAcquireMillis,
+                    statementCacheHits, statementCacheHits + statementCacheMisses, statementExecutions);
+        }
+    }
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int minSize;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    //  앞쪽이 가장 최근에 반납된 커넥션 (LIFO로 빌려 캐시가 따뜻한 커넥션을 재사용)
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger total = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    //  PreparedStatement execute* 호출 수 (요청당 쿼리 수 측정용)
+    private final LongAdder statementExecutions = new LongAdder();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public ConnectionPool(String url, String user, String password,
+                          int minSize, int maxSize, long acquireTimeoutMillis,
+                          long idleTimeoutMillis, int statementCacheSize) {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("잘못된 풀 크기: min=" + minSize + ", max=" + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000L, idleTimeoutMillis / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+    }
+
+    public Connection getConnection() throws SQLException {
+        if (closed) { throw new SQLException("Connection pool is closed"); }
+
+        long start = System.nanoTime();
+        waiters.incrementAndGet();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("커넥션 대여 시간 초과 (" + acquireTimeoutMillis + "ms), " + stats());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("커넥션 대여 중 인터럽트", e);
+        } finally {
+            waiters.decrementAndGet();
+        }
+
+        try {
+            PooledConnection pc;
+            while ((pc = idle.pollFirst()) != null) {
+                if (pc.isUsable()) { break; }
+                pc.destroy();
+            }
+            if (pc == null) {
+                pc = newConnection();
+            }
+            active.incrementAndGet();
+            acquireCount.increment();
+            acquireNanos.add(System.nanoTime() - start);
+            return pc.borrow();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public Stats stats() {
+        long count = acquireCount.sum();
+        double avg = count == 0 ? 0.0 : acquireNanos.sum() / (double) count / 1_000_000.0;
+        return new Stats(active.get(), idle.size(), total.get(), waiters.get(), count, avg,
+                statementCacheHits.sum(), statementCacheMisses.sum(), statementExecutions.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            pc.destroy();
+        }
+    }
+
+    private PooledConnection newConnection() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        total.incrementAndGet();
+        return new PooledConnection(raw);
+    }
+
+    private void release(PooledConnection pc) {
+        boolean reusable = !closed;
+        try {
+            if (!pc.raw.getAutoCommit()) {
+                pc.raw.rollback();
+                pc.raw.setAutoCommit(true);
+            }
+            pc.raw.clearWarnings();
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        active.decrementAndGet();
+        if (reusable) {
+            pc.lastUsedNanos = System.nanoTime();
+            idle.offerFirst(pc);
+        } else {
+            pc.destroy();
+        }
+        permits.release();
+    }
+
+    private void evictIdle() {
+        try {
+            long now = System.nanoTime();
+            long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+            Iterator<PooledConnection> it = idle.descendingIterator();
+            while (it.hasNext() && total.get() > minSize) {
+                PooledConnection pc = it.next();
+                if (now - pc.lastUsedNanos < idleNanos) { break; }
+                //  그 사이 다른 스레드가 빌려갔다면 remove가 false
+                if (idle.remove(pc)) {
+                    pc.destroy();
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "유휴 커넥션 정리 실패", e);
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed && total.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pc = newConnection();
+                pc.lastUsedNanos = System.nanoTime();
+                idle.offerLast(pc);
+            } catch (SQLException e) {
+                logger.log(Level.WARNING, "최소 커넥션 생성 실패", e);
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class PooledConnection {
+        final Connection raw;
+        final Map<String, PreparedStatement> statements;
+        volatile long lastUsedNanos;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() > statementCacheSize) {
+                        closeQuietly(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        boolean isUsable() {
+            try {
+                return raw.isValid(1);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        Connection borrow() {
+            return (Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new ConnectionHandle(this));
+        }
+
+        PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+            if (statementCacheSize <= 0) {
+                return raw.prepareStatement(sql, autoGeneratedKeys);
+            }
+            String key = autoGeneratedKeys + ":" + sql;
+            PreparedStatement cached = statements.get(key);
+            if (cached != null && !cached.isClosed()) {
+                statementCacheHits.increment();
+                return cached;
+            }
+            statementCacheMisses.increment();
+            PreparedStatement ps = raw.prepareStatement(sql, autoGeneratedKeys);
+            statements.put(key, ps);
+            return ps;
+        }
+
+        void destroy() {
+            total.decrementAndGet();
+            for (PreparedStatement ps : statements.values()) {
+                closeQuietly(ps);
+            }
+            statements.clear();
+            try {
+                raw.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "커넥션 종료 실패", e);
+            }
+        }
+
+        private void closeQuietly(PreparedStatement ps) {
+            try {
+                ps.close();
+            } catch (SQLException e) {
+                logger.log(Level.FINE, "PreparedStatement 종료 실패", e);
+            }
+        }
+    }
+
+    //  빌려줄 때마다 새 핸들을 만들어서, 반납 후 남은 참조로는 커넥션을 쓸 수 없게 한다.
+    private final class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pc;
+        private boolean released;
+
+        ConnectionHandle(PooledConnection pc) {
+            this.pc = pc;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pc);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pc.raw.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pc.raw + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection is closed");
+            }
+            if ("prepareStatement".equals(name) && args != null && args[0] instanceof String) {
+                if (args.length == 1) {
+                    return cachedStatement(proxy, pc.prepare((String) args[0], Statement.NO_GENERATED_KEYS));
+                }
+                if (args.length == 2 && args[1] instanceof Integer) {
+                    return cachedStatement(proxy, pc.prepare((String) args[0], (Integer) args[1]));
+                }
+            }
+            return ConnectionPool.invoke(pc.raw, method, args);
+        }
+
+        private PreparedStatement cachedStatement(Object connectionProxy, PreparedStatement ps) {
+            if (statementCacheSize <= 0) { return ps; }
+            return (PreparedStatement) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (p, m, a) -> {
+                        if ("close".equals(m.getName())) {
+                            //  캐시에 남겨둔 채 다음 사용을 위해 상태만 정리
+                            if (!ps.isClosed()) {
+                                ps.clearParameters();
+                                ps.clearBatch();
+                            }
+                            return null;
+                        }
+                        if ("getConnection".equals(m.getName())) { return connectionProxy; }
+                        if (m.getName().startsWith("execute")) { statementExecutions.increment(); }
+                        return ConnectionPool.invoke(ps, m, a);
+                    });
+        }
+    }
+}
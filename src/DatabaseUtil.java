@@ -1,23 +1,45 @@
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 
 public class DatabaseUtil {
-    private static final String URL = "jdbc:h2:./data/testdb;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false";
+    private static final String URL = AppConfig.get("board.db.url",
+            "jdbc:h2:./data/testdb;DB_CLOSE_DELAY=-1;DATABASE_TO_UPPER=false");
     private static final String USER = "sa";
     private static final String PASSWORD = "";
 
+    private static final ConnectionPool POOL;
+
     static {
         try {
             Class.forName("org.h2.Driver");
-            initDatabase();
         } catch (ClassNotFoundException e) {
             throw new RuntimeException("H2 드라이버 로드 실패", e);
         }
+        POOL = new ConnectionPool(URL, USER, PASSWORD,
+                AppConfig.getInt("board.db.pool.min", 2),
+                AppConfig.getInt("board.db.pool.max", 10),
+                AppConfig.getLong("board.db.pool.acquireTimeoutMs", 5_000L),
+                AppConfig.getLong("board.db.pool.idleTimeoutMs", 300_000L),
+                AppConfig.getInt("board.db.pool.statementCacheSize", 64));
+        initDatabase();
+    }
+
+    /* 드라이버 로드, 커넥션 풀 생성, 스키마 초기화를 지금 끝낸다 (부르지 않으면 첫 getConnection() 때 일어남) */
+    public static void init() {
+        //  정적 초기화가 이 클래스를 처음 쓰는 시점에 한 번 실행되므로 본문은 비어 있다
     }
+
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return POOL.getConnection();
+    }
+
+    public static ConnectionPool.Stats getPoolStats() {
+        return POOL.stats();
+    }
+
+    public static void shutdown() {
+        POOL.close();
     }
 
     private static void initDatabase() {
@@ -27,14 +49,65 @@ public class DatabaseUtil {
                 title VARCHAR(255) NOT NULL,
                 content TEXT NOT NULL,
                 author VARCHAR(100) NOT NULL,
-                createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updatedAt TIMESTAMP,
+                version BIGINT DEFAULT 0 NOT NULL,
+                viewCount BIGINT DEFAULT 0 NOT NULL
+            )
+        """;
+        //  updatedAt/version/viewCount 가 생기기 전에 만든 DB 용 (updatedAt 이 NULL 이면 수정된 적 없는 글)
+        String[] migratePostSQL = {
+            "ALTER TABLE post ADD COLUMN IF NOT EXISTS updatedAt TIMESTAMP",
+            "ALTER TABLE post ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL",
+            "ALTER TABLE post ADD COLUMN IF NOT EXISTS viewCount BIGINT DEFAULT 0 NOT NULL"
+        };
+        //  키셋 페이지네이션 (ORDER BY createdAt DESC, id DESC) 용 복합 인덱스
+        String createIndexSQL = "CREATE INDEX IF NOT EXISTS idx_post_created_id ON post (createdAt DESC, id DESC)";
+        //  작성자 피드 (WHERE author = ? ORDER BY createdAt DESC, id DESC) 와 작성자별 글 수용
+        String createAuthorIndexSQL = "CREATE INDEX IF NOT EXISTS idx_post_author_created_id ON post (author, createdAt DESC, id DESC)";
+
+        //  회원 (USER 는 예약어라 app_user), 소문자로 정규화한 이메일에 유니크 인덱스
+        String createUserTableSQL = """
+            CREATE TABLE IF NOT EXISTS app_user (
+                id VARCHAR(36) PRIMARY KEY,
+                email VARCHAR(255) NOT NULL,
+                emailNormalized VARCHAR(255) NOT NULL,
+                passwordHash VARBINARY(64) NOT NULL,
+                salt VARBINARY(32) NOT NULL,
+                iterations INT NOT NULL,
+                createdAt BIGINT NOT NULL
+            )
+        """;
+        String createUserIndexSQL = "CREATE UNIQUE INDEX IF NOT EXISTS uq_app_user_email ON app_user (emailNormalized)";
+
+        //  첨부파일 메타데이터만 (내용은 AttachmentStore 가 파일시스템에 SHA-256 이름으로), 글과 함께 삭제
+        String createAttachmentTableSQL = """
+            CREATE TABLE IF NOT EXISTS attachment (
+                postId BIGINT NOT NULL,
+                name VARCHAR(255) NOT NULL,
+                sha256 CHAR(64) NOT NULL,
+                size BIGINT NOT NULL,
+                contentType VARCHAR(100) NOT NULL,
+                createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (postId, name),
+                FOREIGN KEY (postId) REFERENCES post (id) ON DELETE CASCADE
             )
         """;
 
         try (Connection conn = getConnection();
              Statement stmt = conn.createStatement()) {
             stmt.execute(createTableSQL);
+            for (String sql : migratePostSQL) {
+                stmt.execute(sql);
+            }
+            stmt.execute(createIndexSQL);
+            stmt.execute(createAuthorIndexSQL);
             System.out.println("POST 테이블 초기화 완료");
+            stmt.execute(createUserTableSQL);
+            stmt.execute(createUserIndexSQL);
+            System.out.println("APP_USER 테이블 초기화 완료");
+            stmt.execute(createAttachmentTableSQL);
+            System.out.println("ATTACHMENT 테이블 초기화 완료");
         } catch (SQLException e) {
             System.err.println("테이블 생성 실패: " + e.getMessage());
         }
@@ -0,0 +1,204 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * POST /api/posts 그룹 커밋 작성기 (board.posts.groupCommit.enabled=true 일 때만 사용).
+ * 요청 스레드는 글을 길이 제한 큐에 넣고 기다리며, 작성 스레드 하나가 큐에서 최대 maxBatch 개를
+ * (첫 글 이후 lingerMs 까지 더 기다려) 모아 한 트랜잭션으로 INSERT 하고 한 번만 커밋한다.
+ * 커밋이 끝나야 각 요청이 생성된 id/createdAt 과 함께 깨어나므로 응답(201 + 생성된 글)은 기존과 같다.
+ * - 큐가 가득 차면 RejectedExecutionException (호출 측은 503)
+ * - 그룹 커밋이 실패하면 그 그룹의 글을 한 건씩 다시 저장해 잘못된 글 하나가 나머지를 실패시키지 않게 한다
+ * - timeoutMs 안에 끝나지 않았을 때 아직 작성 스레드가 가져가지 않은 글이면 취소하고
+ *   RejectedExecutionException (저장되지 않았으므로 다시 보내도 된다),
+ *   이미 커밋 중인 글이면 TimeoutException (저장됐을 수 있으므로 호출 측은 재시도를 권하지 않는다)
+ */
+public class GroupCommitWriter {
+    private static final Logger logger = Logger.getLogger(GroupCommitWriter.class.getName());
+
+    //  Singleton
+    private static final GroupCommitWriter INSTANCE = new GroupCommitWriter(
+            AppConfig.getBoolean("board.posts.groupCommit.enabled", false),
+            AppConfig.getInt("board.posts.groupCommit.maxBatch", 64),
+            AppConfig.getLong("board.posts.groupCommit.lingerMs", 2L),
+            AppConfig.getInt("board.posts.groupCommit.queueLimit", 1_024),
+            AppConfig.getLong("board.posts.groupCommit.timeoutMs", 10_000L));
+    public static GroupCommitWriter getInstance() {
+        return INSTANCE;
+    }
+
+    private static final int QUEUED = 0;
+    private static final int CLAIMED = 1;
+    private static final int CANCELLED = 2;
+
+    private static final class Pending {
+        final Post post;
+        final CompletableFuture<Post> done = new CompletableFuture<>();
+        //  QUEUED -> CLAIMED (작성 스레드가 INSERT 직전에) 또는 QUEUED -> CANCELLED (기다리던 요청이 포기)
+        final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        Pending(Post post) {
+            this.post = post;
+        }
+    }
+
+    private final boolean enabled;
+    private final int maxBatch;
+    private final long lingerNanos;
+    private final long timeoutMillis;
+    private final BlockingQueue<Pending> queue;
+    private final PostDao postDao = new PostDao();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+    private final LongAdder groups = new LongAdder();
+    private final LongAdder posts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+    private final LongAdder withdrawn = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private GroupCommitWriter(boolean enabled, int maxBatch, long lingerMillis, int queueLimit, long timeoutMillis) {
+        this.enabled = enabled;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueLimit));
+        if (enabled) {
+            writer = new Thread(this::run, "post-group-commit");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /* 글이 속한 그룹이 커밋되면 id/createdAt 이 채워진 글을 반환 */
+    public Post save(Post post) throws SQLException, TimeoutException {
+        Pending pending = new Pending(post);
+        if (!running || !queue.offer(pending)) {
+            rejected.increment();
+            throw new RejectedExecutionException("group commit queue is full");
+        }
+        try {
+            return pending.done.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw withdraw(pending, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw withdraw(pending, new TimeoutException("interrupted while waiting for group commit"));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) { throw (SQLException) cause; }
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    //  아직 가져가지 않은 글이면 취소해 저장되지 않게 하고, 이미 커밋 중이면 inFlight 를 그대로 돌려준다
+    private RuntimeException withdraw(Pending pending, TimeoutException inFlight) throws TimeoutException {
+        if (pending.state.compareAndSet(QUEUED, CANCELLED)) {
+            queue.remove(pending);
+            withdrawn.increment();
+            return new RejectedExecutionException("group commit timed out, post was not saved");
+        }
+        throw inFlight;
+    }
+
+    public LatencyHistogram getCommitLatency() { return commitLatency; }
+    public long getGroupCount() { return groups.sum(); }
+    public long getPostCount() { return posts.sum(); }
+    public long getRejectedCount() { return rejected.sum(); }
+    public long getFallbackCount() { return fallbacks.sum(); }
+    public long getWithdrawnCount() { return withdrawn.sum(); }
+    public int getQueueDepth() { return queue.size(); }
+
+    //  새 글은 더 받지 않고, 큐에 남은 글을 모두 저장한 뒤 작성 스레드를 끝낸다
+    public void shutdown() {
+        if (writer == null) { return; }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(group);
+            } catch (InterruptedException e) {
+                //  shutdown(): 이미 모은 글과 큐에 남은 글까지 저장하고 끝낸다
+                queue.drainTo(group);
+            }
+            if (!group.isEmpty()) {
+                write(group);
+                group.clear();
+            }
+        }
+    }
+
+    //  첫 글은 올 때까지 기다리고, 그 뒤로는 lingerNanos 안에 들어오는 글을 maxBatch 개까지 모은다
+    private void collect(List<Pending> group) throws InterruptedException {
+        group.add(queue.take());
+        queue.drainTo(group, maxBatch - group.size());
+        long deadline = System.nanoTime() + lingerNanos;
+        while (group.size() < maxBatch) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) { break; }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) { break; }
+            group.add(next);
+            queue.drainTo(group, maxBatch - group.size());
+        }
+    }
+
+    private void write(List<Pending> collected) {
+        //  시간 초과로 취소된 글은 빼고, 남은 글은 더 이상 취소할 수 없게 가져간다
+        List<Pending> group = new ArrayList<>(collected.size());
+        List<Post> batch = new ArrayList<>(collected.size());
+        for (Pending p : collected) {
+            if (p.state.compareAndSet(QUEUED, CLAIMED)) {
+                group.add(p);
+                batch.add(p.post);
+            }
+        }
+        if (group.isEmpty()) { return; }
+        long start = System.nanoTime();
+        try {
+            postDao.saveGroup(batch);
+            commitLatency.record(System.nanoTime() - start);
+            groups.increment();
+            posts.add(group.size());
+            for (Pending p : group) {
+                p.done.complete(p.post);
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.WARNING, "그룹 커밋 실패, 한 건씩 다시 저장합니다 (" + group.size() + "건)", e);
+            fallbacks.increment();
+            for (Pending p : group) {
+                try {
+                    p.done.complete(postDao.save(p.post));
+                    posts.increment();
+                } catch (SQLException | RuntimeException single) {
+                    p.done.completeExceptionally(single);
+                }
+            }
+        }
+    }
+}
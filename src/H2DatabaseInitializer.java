@@ -29,6 +29,9 @@ public class H2DatabaseInitializer {
             // 3. POST 테이블 생성
             createPostTable(conn);
 
+            // 3-1. 첨부파일 메타데이터 테이블 생성
+            createAttachmentTable(conn);
+
             // 4. 샘플 데이터 삽입
             insertSampleData(conn);
 
@@ -61,7 +64,10 @@ public class H2DatabaseInitializer {
                 title VARCHAR(255) NOT NULL,
                 content TEXT NOT NULL,
                 author VARCHAR(100) NOT NULL,
-                createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                updatedAt TIMESTAMP,
+                version BIGINT DEFAULT 0 NOT NULL,
+                viewCount BIGINT DEFAULT 0 NOT NULL
             )
         """;
 
@@ -71,8 +77,19 @@ public class H2DatabaseInitializer {
             // System.out.println("✓ 기존 테이블 삭제");
 
             stmt.execute(createTable);
+            stmt.execute("ALTER TABLE post ADD COLUMN IF NOT EXISTS updatedAt TIMESTAMP");
+            stmt.execute("ALTER TABLE post ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL");
+            stmt.execute("ALTER TABLE post ADD COLUMN IF NOT EXISTS viewCount BIGINT DEFAULT 0 NOT NULL");
             System.out.println("✓ POST 테이블 생성 완료");
 
+            // 키셋 페이지네이션용 인덱스
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_post_created_id ON post (createdAt DESC, id DESC)");
+            System.out.println("✓ idx_post_created_id 인덱스 생성 완료");
+
+            // 작성자 피드용 인덱스
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_post_author_created_id ON post (author, createdAt DESC, id DESC)");
+            System.out.println("✓ idx_post_author_created_id 인덱스 생성 완료");
+
             // 테이블 구조 확인
             DatabaseMetaData metaData = conn.getMetaData();
             ResultSet columns = metaData.getColumns(null, null, "POST", null);
@@ -87,6 +104,27 @@ public class H2DatabaseInitializer {
         }
     }
 
+    private static void createAttachmentTable(Connection conn) throws SQLException {
+        // 내용은 파일시스템(data/attachments)에 SHA-256 이름으로 두고 여기에는 메타데이터만
+        String createTable = """
+            CREATE TABLE IF NOT EXISTS attachment (
+                postId BIGINT NOT NULL,
+                name VARCHAR(255) NOT NULL,
+                sha256 CHAR(64) NOT NULL,
+                size BIGINT NOT NULL,
+                contentType VARCHAR(100) NOT NULL,
+                createdAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                PRIMARY KEY (postId, name),
+                FOREIGN KEY (postId) REFERENCES post (id) ON DELETE CASCADE
+            )
+        """;
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createTable);
+            System.out.println("✓ ATTACHMENT 테이블 생성 완료");
+        }
+    }
+
     private static void insertSampleData(Connection conn) throws SQLException {
         // 데이터가 이미 있는지 확인
         String checkQuery = "SELECT COUNT(*) FROM post";
@@ -3,13 +3,72 @@ import com.sun.net.httpserver.HttpExchange;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
 
 public class HttpUtil {
-    public static String readBody(HttpExchange ex) throws Exception {
+    //  가입/로그인 같은 작은 JSON 본문의 최대 크기
+    public static final int MAX_JSON_BYTES = AppConfig.getInt("board.http.maxJsonBytes", 16 * 1024);
+
+    /*
+     * 본문의 최상위 JSON 객체를 스트림에서 바로 필드 맵으로 읽는다.
+     * Content-Length 가 한도를 넘으면 읽지 않고 바로 TooLargeException, chunked 본문은 읽는 도중 한도를 확인한다.
+     */
+    public static Map<String, String> readJsonObject(HttpExchange ex, int maxBytes) throws IOException {
+        String length = ex.getRequestHeaders().getFirst("Content-Length");
+        if (length != null) {
+            try {
+                if (Long.parseLong(length.trim()) > maxBytes) { throw new JsonFieldReader.TooLargeException(maxBytes); }
+            } catch (NumberFormatException ignored) {
+                //  잘못된 헤더면 읽으면서 확인
+            }
+        }
         try (InputStream is = ex.getRequestBody()) {
-            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+            return JsonFieldReader.readObject(is, maxBytes);
+        }
+    }
+
+    //  ?limit=10&cursor=abc -> {limit=10, cursor=abc} (중복 키는 마지막 값)
+    public static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) { return params; }
+
+        for (String pair : rawQuery.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String k = eq < 0 ? pair : pair.substring(0, eq);
+            String v = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(k, StandardCharsets.UTF_8), URLDecoder.decode(v, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    //  통계용 라우트 이름: 숫자로만 된 경로 조각은 {id} 로 묶는다 (/api/posts/42 -> /api/posts/{id})
+    //  첨부파일 이름도 라벨 수가 늘지 않도록 {name} 으로 묶는다 (/api/posts/42/attachments/a.png)
+    public static String routeOf(HttpExchange ex) {
+        String path = ex.getRequestURI().getPath();
+        StringBuilder sb = new StringBuilder(path.length());
+        boolean afterAttachments = false;
+        int i = 0;
+        while (i < path.length()) {
+            int next = path.indexOf('/', i + 1);
+            if (next < 0) { next = path.length(); }
+            String segment = path.substring(i, next);
+            boolean numeric = segment.length() > 1;
+            for (int j = 1; j < segment.length() && numeric; j++) {
+                numeric = Character.isDigit(segment.charAt(j));
+            }
+            if (afterAttachments && segment.length() > 1) {
+                sb.append("/{name}");
+            } else {
+                sb.append(numeric ? "/{id}" : segment);
+            }
+            afterAttachments = "/attachments".equals(segment);
+            i = next;
         }
+        return sb.length() > 1 && sb.charAt(sb.length() - 1) == '/' ? sb.substring(0, sb.length() - 1) : sb.toString();
     }
 
     public static void sendJson(HttpExchange ex, int code, String json) {
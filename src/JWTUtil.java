@@ -2,6 +2,7 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -40,11 +41,23 @@ public class JWTUtil {
         }
     }
 
+    //  스레드별로 마지막에 쓴 키로 초기화된 Mac 을 재사용 (키가 바뀔 때만 getInstance/init)
+    private static final class CachedMac {
+        byte[] secret;
+        Mac mac;
+    }
+    private static final ThreadLocal<CachedMac> MACS = ThreadLocal.withInitial(CachedMac::new);
+
     private static byte[] hmac256(byte[] secret, String data) {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
-            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
-            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            CachedMac cached = MACS.get();
+            if (cached.mac == null || !Arrays.equals(cached.secret, secret)) {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+                cached.mac = mac;
+                cached.secret = secret.clone();
+            }
+            return cached.mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
         } catch (Exception e) { throw new RuntimeException(e); }
     }
 
@@ -0,0 +1,271 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * 요청 본문의 최상위 JSON 객체를 한 번 훑으며 필드 단위로 넘겨주는 스트리밍 파서.
+ * - InputStream 에서 작은 버퍼 단위로 직접 읽고, 전체 본문을 String 으로 만들지 않는다
+ * - maxBytes 를 넘으면 TooLargeException (읽기를 멈추므로 큰 본문을 끝까지 받지 않음)
+ * - 문자열 값은 이스케이프(\n, \", 서로게이트 쌍을 포함한 \\uXXXX)를 풀어 UTF-8 바이트로 모은 뒤 String 하나로 만든다
+ * - 숫자/불리언은 원문 그대로, null 은 null, 중첩 객체/배열은 원문 JSON 텍스트로 넘긴다
+ * 형식이 잘못되면 MalformedException.
+ */
+public class JsonFieldReader {
+    private static final int MAX_DEPTH = 64;
+
+    public interface FieldVisitor {
+        void field(String name, String value);
+    }
+
+    public static class MalformedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public MalformedException(String message) {
+            super(message);
+        }
+    }
+
+    public static class TooLargeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        public TooLargeException(long maxBytes) {
+            super("body exceeds " + maxBytes + " bytes");
+        }
+    }
+
+    private final InputStream in;
+    private final long maxBytes;
+    private final byte[] buf = new byte[512];
+    private int pos;
+    private int limit;
+    private long consumed;
+    //  문자열/원문 값을 모으는 재사용 버퍼
+    private byte[] scratch = new byte[128];
+    private int scratchLen;
+
+    private JsonFieldReader(InputStream in, long maxBytes) {
+        this.in = in;
+        this.maxBytes = maxBytes;
+    }
+
+    public static Map<String, String> readObject(InputStream in, long maxBytes) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        readObject(in, maxBytes, fields::put);
+        return fields;
+    }
+
+    public static Map<String, String> readObject(byte[] json) throws IOException {
+        return readObject(new ByteArrayInputStream(json), json.length);
+    }
+
+    public static void readObject(InputStream in, long maxBytes, FieldVisitor visitor) throws IOException {
+        new JsonFieldReader(in, maxBytes).object(visitor);
+    }
+
+    private void object(FieldVisitor visitor) throws IOException {
+        expect(skipWs(), '{');
+        int c = skipWs();
+        if (c == '}') {
+            end();
+            return;
+        }
+        while (true) {
+            expect(c, '"');
+            String name = string();
+            expect(skipWs(), ':');
+            visitor.field(name, value(skipWs()));
+            c = skipWs();
+            if (c == '}') { break; }
+            expect(c, ',');
+            c = skipWs();
+        }
+        end();
+    }
+
+    //  닫는 중괄호 뒤에는 공백만 허용
+    private void end() throws IOException {
+        if (skipWs() != -1) { throw new MalformedException("trailing data"); }
+    }
+
+    private String value(int c) throws IOException {
+        switch (c) {
+            case '"':
+                return string();
+            case '{':
+            case '[':
+                scratchLen = 0;
+                raw(c, 1);
+                return new String(scratch, 0, scratchLen, StandardCharsets.UTF_8);
+            case 't':
+                literal("rue");
+                return "true";
+            case 'f':
+                literal("alse");
+                return "false";
+            case 'n':
+                literal("ull");
+                return null;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) { return number(c); }
+                throw new MalformedException(c == -1 ? "unexpected end" : "unexpected '" + (char) c + "'");
+        }
+    }
+
+    private String string() throws IOException {
+        scratchLen = 0;
+        while (true) {
+            int c = next();
+            if (c == '"') { break; }
+            if (c == -1) { throw new MalformedException("unterminated string"); }
+            if (c < 0x20) { throw new MalformedException("control character in string"); }
+            if (c != '\\') {
+                append(c);
+                continue;
+            }
+            int e = next();
+            switch (e) {
+                case '"': append('"'); break;
+                case '\\': append('\\'); break;
+                case '/': append('/'); break;
+                case 'b': append('\b'); break;
+                case 'f': append('\f'); break;
+                case 'n': append('\n'); break;
+                case 'r': append('\r'); break;
+                case 't': append('\t'); break;
+                case 'u': appendCodePoint(unicodeEscape()); break;
+                default: throw new MalformedException("bad escape");
+            }
+        }
+        return new String(scratch, 0, scratchLen, StandardCharsets.UTF_8);
+    }
+
+    //  \\uXXXX (상위 서로게이트면 뒤따르는 \\uXXXX 하위 서로게이트와 합친다)
+    private int unicodeEscape() throws IOException {
+        char high = (char) hex4();
+        if (!Character.isHighSurrogate(high)) { return high; }
+        if (next() != '\\' || next() != 'u') { throw new MalformedException("unpaired surrogate"); }
+        char low = (char) hex4();
+        if (!Character.isLowSurrogate(low)) { throw new MalformedException("unpaired surrogate"); }
+        return Character.toCodePoint(high, low);
+    }
+
+    private int hex4() throws IOException {
+        int v = 0;
+        for (int i = 0; i < 4; i++) {
+            int d = Character.digit(next(), 16);
+            if (d < 0) { throw new MalformedException("bad unicode escape"); }
+            v = (v << 4) | d;
+        }
+        return v;
+    }
+
+    private String number(int first) throws IOException {
+        StringBuilder sb = new StringBuilder(16).append((char) first);
+        int c;
+        while ((c = peek()) != -1 && ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-')) {
+            sb.append((char) c);
+            pos++;
+        }
+        if (sb.length() == 1 && first == '-') { throw new MalformedException("bad number"); }
+        return sb.toString();
+    }
+
+    private void literal(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (next() != rest.charAt(i)) { throw new MalformedException("bad literal"); }
+        }
+    }
+
+    //  중첩 객체/배열을 구조만 확인하며 원문 그대로 scratch 에 복사 (문자열 안의 괄호는 무시)
+    private void raw(int open, int depth) throws IOException {
+        append(open);
+        boolean inString = false;
+        while (depth > 0) {
+            int c = next();
+            if (c == -1) { throw new MalformedException("unexpected end"); }
+            append(c);
+            if (inString) {
+                if (c == '\\') {
+                    int e = next();
+                    if (e == -1) { throw new MalformedException("unexpected end"); }
+                    append(e);
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' || c == '[') {
+                if (++depth > MAX_DEPTH) { throw new MalformedException("nesting too deep"); }
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+        }
+    }
+
+    private void append(int b) {
+        if (scratchLen == scratch.length) {
+            byte[] grown = new byte[scratch.length * 2];
+            System.arraycopy(scratch, 0, grown, 0, scratchLen);
+            scratch = grown;
+        }
+        scratch[scratchLen++] = (byte) b;
+    }
+
+    private void appendCodePoint(int cp) {
+        if (cp < 0x80) {
+            append(cp);
+        } else if (cp < 0x800) {
+            append(0xC0 | (cp >> 6));
+            append(0x80 | (cp & 0x3F));
+        } else if (cp < 0x10000) {
+            append(0xE0 | (cp >> 12));
+            append(0x80 | ((cp >> 6) & 0x3F));
+            append(0x80 | (cp & 0x3F));
+        } else {
+            append(0xF0 | (cp >> 18));
+            append(0x80 | ((cp >> 12) & 0x3F));
+            append(0x80 | ((cp >> 6) & 0x3F));
+            append(0x80 | (cp & 0x3F));
+        }
+    }
+
+    private void expect(int c, char expected) throws MalformedException {
+        if (c != expected) {
+            throw new MalformedException("expected '" + expected + "'" + (c == -1 ? " but reached end" : ""));
+        }
+    }
+
+    private int skipWs() throws IOException {
+        int c;
+        do {
+            c = next();
+        } while (c == ' ' || c == '\t' || c == '\n' || c == '\r');
+        return c;
+    }
+
+    private int next() throws IOException {
+        if (pos == limit && !fill()) { return -1; }
+        return buf[pos++] & 0xFF;
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) { return -1; }
+        return buf[pos] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        long remaining = maxBytes - consumed;
+        //  한도까지 남은 만큼보다 1 바이트 더 요청해 초과 여부를 알아낸다
+        int want = remaining >= buf.length ? buf.length : (int) remaining + 1;
+        int n = in.read(buf, 0, want);
+        if (n <= 0) { return false; }
+        consumed += n;
+        if (consumed > maxBytes) { throw new TooLargeException(maxBytes); }
+        pos = 0;
+        limit = n;
+        return true;
+    }
+}
@@ -0,0 +1,334 @@
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * 키 하나에 묶인 HS256 JWT 검증기.
+ * - 스레드마다 초기화된 Mac 을 재사용 (Mac.getInstance/init 은 생성 시 한 번)
+ * - split/정규식 없이 '.' 위치만 찾아 세그먼트를 처리하고, 서명/페이로드는 스레드 로컬 버퍼에 디코딩
+ * - 평면 JSON 클레임을 바이트 단위로 한 번에 파싱
+ * - exp/nbf 검증 (clockSkewSeconds 만큼 허용)
+ * - 선택: 최근 검증한 토큰 LRU 캐시 (캐시 적중 시에도 exp 는 다시 확인)
+ * 검증 실패 시 null, 성공 시 읽기 전용 클레임 맵을 반환한다.
+ */
+public class JwtVerifier {
+    private static final String ALG = "HmacSHA256";
+    private static final int SIG_LEN = 32;
+    private static final byte[] B64_DECODE = new byte[128];
+
+    static {
+        Arrays.fill(B64_DECODE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            B64_DECODE[alphabet.charAt(i)] = (byte) i;
+        }
+    }
+
+    //  스레드별 작업 공간: 초기화된 Mac 과 재사용 버퍼
+    private static final class Workspace {
+        final Mac mac;
+        byte[] input = new byte[512];
+        byte[] payload = new byte[256];
+        final byte[] expected = new byte[SIG_LEN];
+        final byte[] given = new byte[SIG_LEN];
+
+        Workspace(Mac mac) {
+            this.mac = mac;
+        }
+    }
+
+    private final ThreadLocal<Workspace> workspace;
+    private final LruCache<String, Map<String, Object>> verified;
+    private final long clockSkewSeconds;
+
+    public JwtVerifier(byte[] secret) {
+        this(secret, 0, 0);
+    }
+
+    /* cacheSize <= 0 이면 검증 결과를 캐싱하지 않음 */
+    public JwtVerifier(byte[] secret, int cacheSize, long clockSkewSeconds) {
+        SecretKeySpec key = new SecretKeySpec(secret.clone(), ALG);
+        Mac prototype = newMac(key);
+        this.workspace = ThreadLocal.withInitial(() -> new Workspace(copyOf(prototype, key)));
+        this.verified = cacheSize > 0 ? new LruCache<>(cacheSize, 0) : null;
+        this.clockSkewSeconds = clockSkewSeconds;
+    }
+
+    public Map<String, Object> verify(String token) {
+        return verify(token, System.currentTimeMillis() / 1000);
+    }
+
+    public Map<String, Object> verify(String token, long nowEpochSeconds) {
+        if (token == null) { return null; }
+
+        if (verified != null) {
+            Map<String, Object> cached = verified.get(token);
+            if (cached != null) {
+                return isTimeValid(cached, nowEpochSeconds) ? cached : null;
+            }
+        }
+
+        int dot1 = token.indexOf('.');
+        if (dot1 <= 0) { return null; }
+        int dot2 = token.indexOf('.', dot1 + 1);
+        if (dot2 <= dot1 + 1 || dot2 == token.length() - 1 || token.indexOf('.', dot2 + 1) >= 0) { return null; }
+
+        Workspace ws = workspace.get();
+        try {
+            //  서명 입력 "header.payload" 를 ASCII 바이트로 복사해 HMAC
+            if (ws.input.length < dot2) { ws.input = new byte[Math.max(dot2, ws.input.length * 2)]; }
+            for (int i = 0; i < dot2; i++) {
+                char c = token.charAt(i);
+                if (c > 0x7f) { return null; }
+                ws.input[i] = (byte) c;
+            }
+            ws.mac.update(ws.input, 0, dot2);
+            ws.mac.doFinal(ws.expected, 0);
+
+            if (decode(token, dot2 + 1, token.length(), ws.given) != SIG_LEN) { return null; }
+            if (!constantTimeEquals(ws.expected, ws.given)) { return null; }
+
+            int maxPayload = (dot2 - dot1 - 1) * 3 / 4 + 3;
+            if (ws.payload.length < maxPayload) { ws.payload = new byte[Math.max(maxPayload, ws.payload.length * 2)]; }
+            int payloadLen = decode(token, dot1 + 1, dot2, ws.payload);
+            if (payloadLen < 0) { return null; }
+
+            Map<String, Object> claims = ClaimsParser.parse(ws.payload, payloadLen);
+            if (claims == null || !isTimeValid(claims, nowEpochSeconds)) { return null; }
+
+            if (verified != null) {
+                verified.put(token, claims);
+            }
+            return claims;
+        } catch (ShortBufferException e) {
+            return null;
+        } finally {
+            ws.mac.reset();
+        }
+    }
+
+    public LruCache.Stats cacheStats() {
+        return verified == null ? null : verified.stats();
+    }
+
+    /*
+     * exp/nbf 는 정수든 실수(1.7e9, 소수점)든 숫자면 비교한다. 있는데 숫자가 아니면 (문자열, null 등)
+     * 만료를 판단할 수 없으므로 토큰을 거절한다.
+     */
+    private boolean isTimeValid(Map<String, Object> claims, long now) {
+        if (claims.containsKey("exp")) {
+            Object exp = claims.get("exp");
+            if (!(exp instanceof Number) || now - clockSkewSeconds >= ((Number) exp).doubleValue()) { return false; }
+        }
+        if (claims.containsKey("nbf")) {
+            Object nbf = claims.get("nbf");
+            if (!(nbf instanceof Number) || now + clockSkewSeconds < ((Number) nbf).doubleValue()) { return false; }
+        }
+        return true;
+    }
+
+    private static boolean constantTimeEquals(byte[] a, byte[] b) {
+        int diff = 0;
+        for (int i = 0; i < SIG_LEN; i++) {
+            diff |= a[i] ^ b[i];
+        }
+        return diff == 0;
+    }
+
+    /* base64url(패딩 없음) s[from, to) 를 out 에 디코딩, 디코딩된 길이 반환 (잘못된 입력/버퍼 부족이면 -1) */
+    private static int decode(String s, int from, int to, byte[] out) {
+        int len = to - from;
+        if (len % 4 == 1) { return -1; }
+        int outLen = len * 3 / 4;
+        if (outLen > out.length) { return -1; }
+
+        int o = 0;
+        int bits = 0;
+        int buffer = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            int v = c < 128 ? B64_DECODE[c] : -1;
+            if (v < 0) { return -1; }
+            buffer = (buffer << 6) | v;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                out[o++] = (byte) (buffer >> bits);
+            }
+        }
+        return o;
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(ALG);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 초기화 실패", e);
+        }
+    }
+
+    private static Mac copyOf(Mac prototype, SecretKeySpec key) {
+        try {
+            return (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            return newMac(key);
+        }
+    }
+
+    //  {"sub":"u1","exp":1700000000,"admin":true} 형태의 평면 JSON 만 지원 (중첩 객체/배열은 실패 처리)
+    static final class ClaimsParser {
+        private final byte[] b;
+        private final int end;
+        private int pos;
+
+        private ClaimsParser(byte[] b, int end) {
+            this.b = b;
+            this.end = end;
+        }
+
+        static Map<String, Object> parse(byte[] b, int len) {
+            try {
+                return new ClaimsParser(b, len).object();
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+
+        private Map<String, Object> object() {
+            Map<String, Object> claims = new HashMap<>(8);
+            skipWs();
+            expect('{');
+            skipWs();
+            if (peek() == '}') {
+                pos++;
+                return Collections.unmodifiableMap(claims);
+            }
+            while (true) {
+                skipWs();
+                String key = string();
+                skipWs();
+                expect(':');
+                skipWs();
+                claims.put(key, value());
+                skipWs();
+                byte c = peek();
+                pos++;
+                if (c == '}') { break; }
+                if (c != ',') { throw new IllegalArgumentException("expected ','"); }
+            }
+            skipWs();
+            if (pos != end) { throw new IllegalArgumentException("trailing data"); }
+            return Collections.unmodifiableMap(claims);
+        }
+
+        private Object value() {
+            byte c = peek();
+            if (c == '"') { return string(); }
+            if (c == '-' || (c >= '0' && c <= '9')) { return number(); }
+            if (matchLiteral("true")) { return Boolean.TRUE; }
+            if (matchLiteral("false")) { return Boolean.FALSE; }
+            if (matchLiteral("null")) { return null; }
+            throw new IllegalArgumentException("unsupported value");
+        }
+
+        private Object number() {
+            int start = pos;
+            boolean negative = b[pos] == '-';
+            if (negative) { pos++; }
+            long v = 0;
+            int digits = 0;
+            while (pos < end && b[pos] >= '0' && b[pos] <= '9') {
+                v = v * 10 + (b[pos++] - '0');
+                digits++;
+            }
+            if (digits == 0) { throw new IllegalArgumentException("bad number"); }
+            if (pos < end && (b[pos] == '.' || b[pos] == 'e' || b[pos] == 'E')) {
+                while (pos < end && "+-.eE0123456789".indexOf(b[pos]) >= 0) { pos++; }
+                return Double.parseDouble(new String(b, start, pos - start, StandardCharsets.US_ASCII));
+            }
+            if (digits > 18) {
+                return Double.parseDouble(new String(b, start, pos - start, StandardCharsets.US_ASCII));
+            }
+            return negative ? -v : v;
+        }
+
+        private String string() {
+            expect('"');
+            int start = pos;
+            while (peek() != '"') {
+                if (b[pos] == '\\') { return escapedString(start); }
+                pos++;
+            }
+            String s = new String(b, start, pos - start, StandardCharsets.UTF_8);
+            pos++;
+            return s;
+        }
+
+        private String escapedString(int start) {
+            StringBuilder sb = new StringBuilder(new String(b, start, pos - start, StandardCharsets.UTF_8));
+            int chunk = pos;
+            while (peek() != '"') {
+                if (b[pos] != '\\') {
+                    pos++;
+                    continue;
+                }
+                sb.append(new String(b, chunk, pos - chunk, StandardCharsets.UTF_8));
+                pos++;
+                byte e = peek();
+                pos++;
+                switch (e) {
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (pos + 4 > end) { throw new IllegalArgumentException("bad escape"); }
+                        sb.append((char) Integer.parseInt(new String(b, pos, 4, StandardCharsets.US_ASCII), 16));
+                        pos += 4;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("bad escape");
+                }
+                chunk = pos;
+            }
+            sb.append(new String(b, chunk, pos - chunk, StandardCharsets.UTF_8));
+            pos++;
+            return sb.toString();
+        }
+
+        private boolean matchLiteral(String literal) {
+            if (pos + literal.length() > end) { return false; }
+            for (int i = 0; i < literal.length(); i++) {
+                if (b[pos + i] != literal.charAt(i)) { return false; }
+            }
+            pos += literal.length();
+            return true;
+        }
+
+        private byte peek() {
+            if (pos >= end) { throw new IllegalArgumentException("unexpected end"); }
+            return b[pos];
+        }
+
+        private void expect(char c) {
+            if (peek() != c) { throw new IllegalArgumentException("expected " + c); }
+            pos++;
+        }
+
+        private void skipWs() {
+            while (pos < end && (b[pos] == ' ' || b[pos] == '\t' || b[pos] == '\n' || b[pos] == '\r')) { pos++; }
+        }
+    }
+}
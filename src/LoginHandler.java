@@ -0,0 +1,69 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class LoginHandler implements HttpHandler {
+    private static final Logger logger = Logger.getLogger(LoginHandler.class.getName());
+    private final UserStore userStore = UserStore.getInstance();
+    private final PasswordHasher hasher = PasswordHasher.getInstance();
+    private final byte[] jwtSecret;
+    private final long tokenTtlSeconds;
+
+    public LoginHandler(byte[] jwtSecret, long tokenTtlSeconds) {
+        this.jwtSecret = jwtSecret;
+        this.tokenTtlSeconds = tokenTtlSeconds;
+    }
+
+    @Override
+    public void handle(HttpExchange ex) {
+        try {
+            if (!"POST".equalsIgnoreCase(ex.getRequestMethod())) {
+                HttpUtil.sendJson(ex, 405, SimpleJson.obj("error", "method_not_allowed"));
+                return;
+            }
+            Map<String, String> m = HttpUtil.readJsonObject(ex, HttpUtil.MAX_JSON_BYTES);
+            String email = m.get("email");
+            String password = m.get("password");
+
+            if (email == null || password == null) {
+                HttpUtil.sendJson(ex, 400, SimpleJson.obj("error", "invalid_input"));
+                return;
+            }
+
+            //  검증(+ 필요 시 재해시)도 해시 전용 풀에서
+            //  없는 이메일도 같은 비용으로 검증해 응답 시간으로 가입 여부가 드러나지 않게 한다
+            UserStore.User user = userStore.findByEmail(email);
+            boolean valid = user == null ? hasher.verifyUnknown(password) : hasher.verify(user, password);
+            if (!valid) {
+                HttpUtil.sendJson(ex, 401, SimpleJson.obj("error", "invalid_credentials"));
+                return;
+            }
+
+            long now = System.currentTimeMillis() / 1000;
+            Map<String, Object> claims = new LinkedHashMap<>();
+            claims.put("sub", user.id);
+            claims.put("email", user.email);
+            claims.put("iat", now);
+            claims.put("exp", now + tokenTtlSeconds);
+            String token = JWTUtil.signHS256(jwtSecret, claims);
+
+            HttpUtil.sendJson(ex, 200, SimpleJson.obj("token", token, "expiresIn", tokenTtlSeconds));
+        } catch (JsonFieldReader.TooLargeException e) {
+            HttpUtil.sendJson(ex, 413, SimpleJson.obj("error", "payload_too_large"));
+        } catch (JsonFieldReader.MalformedException e) {
+            HttpUtil.sendJson(ex, 400, SimpleJson.obj("error", "invalid_json"));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            ex.getResponseHeaders().set("Retry-After", "1");
+            HttpUtil.sendJson(ex, 503, SimpleJson.obj("error", "server_busy"));
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unexpected error", e);
+            HttpUtil.sendJson(ex, 500, SimpleJson.obj("error", "server_error", "message", e.getMessage()));
+        }
+    }
+}
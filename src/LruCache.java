@@ -0,0 +1,134 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 크기 제한 LRU 캐시 (선택적으로 TTL).
+ * 키 해시로 나눈 세그먼트마다 접근 순서 LinkedHashMap 을 두어 락 경합을 줄인다.
+ * 전체 용량은 세그먼트에 균등 분배되므로 세그먼트 단위로 근사 LRU 이다.
+ */
+public class LruCache<K, V> {
+    public static class Stats {
+        public final long hits;
+        public final long misses;
+        public final long evictions;
+        public final int size;
+
+        public Stats(long hits, long misses, long evictions, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.size = size;
+        }
+
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f",
+                    size, hits, misses, evictions, hitRate());
+        }
+    }
+
+    private static final class CacheEntry<V> {
+        final V value;
+        final long expiresAtNanos;
+
+        CacheEntry(V value, long expiresAtNanos) {
+            this.value = value;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+    }
+
+    private final Map<K, CacheEntry<V>>[] segments;
+    private final long ttlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /* ttlMillis <= 0 이면 만료 없음 */
+    public LruCache(int maxSize, long ttlMillis) {
+        int segmentCount = Math.max(1, Math.min(16, maxSize / 16));
+        int perSegment = Math.max(1, maxSize / segmentCount);
+        //  제네릭 배열은 직접 만들 수 없으므로 raw 배열을 만들어 넘긴다 (원소는 아래에서 모두 채움)
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Map<K, CacheEntry<V>>[] array = new Map[segmentCount];
+        this.segments = array;
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                    if (size() > perSegment) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+        this.ttlNanos = ttlMillis <= 0 ? 0 : ttlMillis * 1_000_000L;
+    }
+
+    public V get(K key) {
+        Map<K, CacheEntry<V>> segment = segmentFor(key);
+        synchronized (segment) {
+            CacheEntry<V> e = segment.get(key);
+            if (e != null && ttlNanos > 0 && System.nanoTime() - e.expiresAtNanos > 0) {
+                segment.remove(key);
+                e = null;
+            }
+            if (e == null) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return e.value;
+        }
+    }
+
+    public void put(K key, V value) {
+        long expiresAt = ttlNanos > 0 ? System.nanoTime() + ttlNanos : 0;
+        Map<K, CacheEntry<V>> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.put(key, new CacheEntry<>(value, expiresAt));
+        }
+    }
+
+    public void invalidate(K key) {
+        Map<K, CacheEntry<V>> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        for (Map<K, CacheEntry<V>> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<K, CacheEntry<V>> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), size());
+    }
+
+    private Map<K, CacheEntry<V>> segmentFor(K key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return segments[(h & 0x7fffffff) % segments.length];
+    }
+}
@@ -1,23 +1,360 @@
+import com.sun.net.httpserver.HttpContext;
 import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 //TIP 코드를 <b>실행</b>하려면 <shortcut actionId="Run"/>을(를) 누르거나
 // 에디터 여백에 있는 <icon src="AllIcons.Actions.Execute"/> 아이콘을 클릭하세요.
 public class Main {
-    private static final byte[] JWT_SECRET = "my-very-secret-key".getBytes(StandardCharsets.UTF_8);
-    public static void main(String[] args) throws IOException {
-        HttpServer httpServer = HttpServer.create(new InetSocketAddress(8080), 0);
+    private static final Logger logger = Logger.getLogger(Main.class.getName());
+    private static final byte[] JWT_SECRET = AppConfig.get("board.jwt.secret", "my-very-secret-key")
+            .getBytes(StandardCharsets.UTF_8);
+    public static void main(String[] args) throws IOException, SQLException {
+        Startup startup = Startup.getInstance();
+        //  작은 응답이 Nagle + delayed ACK 에 걸려 ~40ms 씩 지연되지 않도록 TCP_NODELAY
+        System.setProperty("sun.net.httpserver.nodelay", AppConfig.get("board.http.nodelay", "true"));
+        int backlog = AppConfig.getInt("board.http.backlog", 0);
+        HttpServer httpServer = HttpServer.create(
+                new InetSocketAddress(AppConfig.getInt("board.http.port", 8080)), backlog);
 
-        //  게시판 API
-        httpServer.createContext("/api/posts", new PostHandler());
+        //  요청 실행기: virtual(가상 스레드) 또는 pool(크기 제한 스레드 풀 + 큐)
+        RequestExecutor executor = RequestExecutor.create(
+                AppConfig.get("board.http.executor", "pool"),
+                AppConfig.getInt("board.http.threads", Runtime.getRuntime().availableProcessors() * 2),
+                AppConfig.getInt("board.http.queueLimit", 100));
+
+        //  서로 기다릴 필요가 없는 초기화는 병렬로 (첫 사용 시점의 정적 초기화에 맡기지 않고 여기서 끝낸다)
+        JwtVerifier jwtVerifier;
+        ExecutorService init = Executors.newFixedThreadPool(
+                AppConfig.getInt("board.startup.threads", Math.min(4, Runtime.getRuntime().availableProcessors())));
+        try {
+            //  1 단계: H2 드라이버/커넥션 풀/스키마, JWT 키(Mac), 비밀번호 해시 스레드 풀
+            //  JWT 검증기: 검증된 토큰은 만료 전까지 LRU 에 보관
+            Future<JwtVerifier> verifier = init.submit(() -> new JwtVerifier(JWT_SECRET,
+                    AppConfig.getInt("board.jwt.cacheSize", 10_000),
+                    AppConfig.getLong("board.jwt.clockSkewSeconds", 30L)));
+            awaitAll(verifier,
+                    init.submit(DatabaseUtil::init),
+                    init.submit(PasswordHasher::getInstance));
+            jwtVerifier = verifier.get();
+            startup.mark("db_ready");
+
+            //  2 단계: H2 를 읽어 메모리 색인을 채운다 (각자 커넥션 하나씩)
+            awaitAll(
+                    //  검색 색인은 H2 내용으로 다시 만든다
+                    init.submit(() -> { PostSearchIndex.getInstance().rebuild(new PostDao()); return null; }),
+                    //  작성자별 글 수는 시작 시 한 번만 세고 이후 증분 반영
+                    init.submit(() -> { AuthorPostCounts.getInstance().rebuild(new PostDao()); return null; }),
+                    //  board.posts.snapshot.enabled 면 목록 조회용 메모리 스냅샷을 H2 로 만든다
+                    init.submit(() -> { PostSnapshot.getInstance().rebuild(new PostDao()); return null; }),
+                    //  회원 색인을 첫 가입 요청 전에 미리 읽어 둔다
+                    init.submit(() -> { UserStore.getInstance().load(); return null; }));
+            startup.mark("caches_loaded");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("startup interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("startup failed", e.getCause());
+        } finally {
+            init.shutdown();
+        }
+        //  조회수 write-behind 반영 시작 (board.views.flushIntervalMs 주기)
+        ViewCounter.getInstance().start(new PostDao());
+        //  어떤 첨부파일 행도 가리키지 않는 내용 파일 정리 (board.attachments.gcIntervalMs 주기)
+        AttachmentStore.getInstance().start(new AttachmentDao());
+
+        //  응답 압축 (gzip/deflate), minBytes 미만의 고정 길이 응답은 그대로 보낸다
+        CompressionFilter compression = new CompressionFilter(
+                AppConfig.getBoolean("board.http.compression.enabled", true),
+                AppConfig.getInt("board.http.compression.minBytes", 1_024),
+                AppConfig.getInt("board.http.compression.level", 6));
+
+        //  클라이언트(JWT sub, 없으면 IP)별 요청 제한: board.ratelimit.<context>.perMinute / .burst
+        //  목록 조회(전체 스캔)와 PBKDF2 를 도는 가입/로그인이 한 클라이언트에 점령되지 않도록
+        boolean rateLimitEnabled = AppConfig.getBoolean("board.ratelimit.enabled", true);
+        List<RateLimitFilter> rateLimits = new ArrayList<>();
+        if (rateLimitEnabled) {
+            rateLimits.add(RateLimitFilter.fromConfig("posts", jwtVerifier, 600, 60));
+            rateLimits.add(RateLimitFilter.fromConfig("signup", null, 10, 5));
+            rateLimits.add(RateLimitFilter.fromConfig("login", null, 30, 10));
+        }
+
+        registerMetrics(executor, compression, jwtVerifier, rateLimits, startup);
+
+        //  SSE 구독자 쓰기: 유휴 구독자는 스레드를 잡지 않고, 보낼 프레임이 생긴 구독자만 이 실행기에서 쓴다
+        ExecutorService sseWriters = executor.newBackgroundExecutor("sse-writer",
+                AppConfig.getInt("board.sse.writerThreads", 4),
+                AppConfig.getInt("board.sse.maxWriterThreads", 256));
+        PostEventBus.getInstance().start(sseWriters);
+
+        //  게시판 API (쓰기는 로그인 필요)
+        HttpContext posts = httpServer.createContext("/api/posts", new PostHandler());
+        posts.getFilters().add(new MetricsFilter("/api/posts"));
+        addRateLimit(posts, rateLimits, "posts");
+        posts.getFilters().add(new AdmissionFilter("posts", executor));
+        posts.getFilters().add(new AuthFilter(jwtVerifier));
+        posts.getFilters().add(compression);
 
         //  회원가입 API
-        httpServer.createContext("/api/auth/signup", new SignupHandler());
+        HttpContext signup = httpServer.createContext("/api/auth/signup", new SignupHandler());
+        signup.getFilters().add(new MetricsFilter("/api/auth/signup"));
+        addRateLimit(signup, rateLimits, "signup");
+        signup.getFilters().add(new AdmissionFilter("signup", executor));
+        signup.getFilters().add(compression);
+
+        //  로그인 API
+        HttpContext login = httpServer.createContext("/api/auth/login",
+                new LoginHandler(JWT_SECRET, AppConfig.getLong("board.jwt.ttlSeconds", 3_600L)));
+        login.getFilters().add(new MetricsFilter("/api/auth/login"));
+        addRateLimit(login, rateLimits, "login");
+        login.getFilters().add(new AdmissionFilter("login", executor));
+        login.getFilters().add(compression);
+
+        //  Prometheus 수집용 (과부하 중에도 볼 수 있도록 AdmissionFilter 는 두지 않음)
+        HttpContext metrics = httpServer.createContext("/metrics", new MetricsHandler());
+        metrics.getFilters().add(new MetricsFilter("/metrics"));
+        metrics.getFilters().add(compression);
 
-        httpServer.setExecutor(null);
+        //  준비 확인: 워밍업이 끝나기 전에는 503
+        HttpContext ready = httpServer.createContext("/ready", new ReadyHandler());
+        ready.getFilters().add(new MetricsFilter("/ready"));
+
+        httpServer.setExecutor(executor);
         httpServer.start();
-        System.out.println("Server started");
+        startup.mark("listening");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            //  열린 SSE 스트림을 먼저 닫아야 stop 이 교환이 끝나기를 기다리지 않는다
+            PostEventBus.getInstance().shutdown();
+            sseWriters.shutdown();
+            httpServer.stop(1);
+            executor.shutdown();
+            GroupCommitWriter.getInstance().shutdown();
+            ViewCounter.getInstance().shutdown();
+            AttachmentStore.getInstance().shutdown();
+            DatabaseUtil.shutdown();
+        }, "shutdown"));
+        System.out.println("Server started (executor=" + executor.getMode()
+                + ", port=" + httpServer.getAddress().getPort() + ")");
+
+        //  포트는 열어 두고 /ready 만 503 인 채로 요청 경로를 미리 돌린다
+        Thread warmup = new Thread(() -> warmUp(jwtVerifier, startup), "warmup");
+        warmup.setDaemon(true);
+        warmup.start();
+    }
+
+    //  board.warmup.iterations 번 워밍업한 뒤 준비 완료. 실패해도 (DB 가 비어 있는 등) 서비스는 열어 준다
+    private static void warmUp(JwtVerifier jwtVerifier, Startup startup) {
+        try {
+            new Warmup(new PostDao(), jwtVerifier, JWT_SECRET).run(AppConfig.getInt("board.warmup.iterations", 200));
+            startup.mark("warmed_up");
+        } catch (SQLException | IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "워밍업 실패, 워밍업 없이 준비 완료로 전환합니다", e);
+        }
+        long readyMs = startup.markReady();
+        System.out.println("Ready in " + readyMs + "ms");
+        //  AppCDS 아카이브 생성(-Pcds)처럼 시작 경로만 한 번 돌려 볼 때
+        if (AppConfig.getBoolean("board.startup.exitWhenReady", false)) {
+            System.exit(0);
+        }
+    }
+
+    //  모두 끝날 때까지 기다리고, 실패한 작업이 있으면 그 원인을 그대로 던진다
+    private static void awaitAll(Future<?>... futures) throws SQLException, InterruptedException, ExecutionException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException) { throw (SQLException) cause; }
+                if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+                if (cause instanceof Error) { throw (Error) cause; }
+                throw e;
+            }
+        }
+    }
+
+    //  MetricsFilter 바로 뒤 (429 도 지표에 남고, 제한된 요청은 핸들러까지 가지 않는다)
+    private static void addRateLimit(HttpContext context, List<RateLimitFilter> rateLimits, String name) {
+        for (RateLimitFilter limit : rateLimits) {
+            if (limit.getName().equals(name)) {
+                context.getFilters().add(limit);
+            }
+        }
+    }
+
+    //  다른 컴포넌트가 이미 세고 있는 값들을 /metrics 에 함께 내보낸다
+    private static void registerMetrics(RequestExecutor executor, CompressionFilter compression, JwtVerifier jwtVerifier,
+                                        List<RateLimitFilter> rateLimits, Startup startup) {
+        Metrics metrics = Metrics.getInstance();
+        metrics.addCollector(out -> {
+            out.type("board_executor_queue_depth", "gauge", "Requests waiting for a worker thread");
+            out.sample("board_executor_queue_depth", executor.getQueueDepth());
+            out.type("board_executor_rejected_total", "counter", "Requests shed with 503 because the queue was full");
+            out.sample("board_executor_rejected_total", executor.getRejectedCount());
+
+            ConnectionPool.Stats pool = DatabaseUtil.getPoolStats();
+            out.type("board_db_pool_connections", "gauge", "JDBC pool connections by state");
+            out.sample("board_db_pool_connections", pool.active, "state", "active");
+            out.sample("board_db_pool_connections", pool.idle, "state", "idle");
+            out.type("board_db_pool_waiters", "gauge", "Threads waiting to borrow a connection");
+            out.sample("board_db_pool_waiters", pool.waiters);
+            out.type("board_db_statement_cache_total", "counter", "PreparedStatement cache lookups");
+            out.sample("board_db_statement_cache_total", pool.statementCacheHits, "result", "hit");
+            out.sample("board_db_statement_cache_total", pool.statementCacheMisses, "result", "miss");
+
+            PostCache cache = PostCache.getInstance();
+            Map<String, LruCache.Stats> caches = new LinkedHashMap<>();
+            caches.put("posts", cache.postStats());
+            caches.put("pages", cache.pageStats());
+            LruCache.Stats jwt = jwtVerifier.cacheStats();
+            if (jwt != null) {
+                caches.put("jwt", jwt);
+            }
+            writeCaches(out, caches);
+
+            PasswordHasher hasher = PasswordHasher.getInstance();
+            out.type("board_hasher_queue_depth", "gauge", "Password hashing jobs waiting");
+            out.sample("board_hasher_queue_depth", hasher.getQueueDepth());
+            out.type("board_hasher_rejected_total", "counter", "Password hashing jobs rejected");
+            out.sample("board_hasher_rejected_total", hasher.getRejectedCount());
+            out.type("board_hasher_rehash_total", "counter", "Passwords re-hashed at login with the current iteration count");
+            out.sample("board_hasher_rehash_total", hasher.getRehashedCount(), "result", "saved");
+            out.sample("board_hasher_rehash_total", hasher.getRehashFailedCount(), "result", "failed");
+            out.type("board_hasher_duration_seconds", "summary", "PBKDF2 time per job");
+            out.summary("board_hasher_duration_seconds", hasher.getHashLatency());
+            out.type("board_hasher_queue_wait_seconds", "summary", "Time jobs waited for a hashing thread");
+            out.summary("board_hasher_queue_wait_seconds", hasher.getQueueWait());
+
+            out.type("board_compression_responses_total", "counter", "Compressible responses by outcome");
+            out.type("board_compression_bytes_total", "counter", "Response bytes before and after compression");
+            out.type("board_compression_duration_seconds", "summary", "Time spent compressing, excluding socket writes");
+            for (Map.Entry<String, CompressionFilter.RouteStats> e : new TreeMap<>(compression.getStats()).entrySet()) {
+                CompressionFilter.RouteStats s = e.getValue();
+                out.sample("board_compression_responses_total", s.compressed.sum(), "route", e.getKey(), "outcome", "compressed");
+                out.sample("board_compression_responses_total", s.skippedSmall.sum(), "route", e.getKey(), "outcome", "too_small");
+                out.sample("board_compression_bytes_total", s.bytesIn.sum(), "route", e.getKey(), "stage", "in");
+                out.sample("board_compression_bytes_total", s.bytesOut.sum(), "route", e.getKey(), "stage", "out");
+                out.summary("board_compression_duration_seconds", s.compressNanos, "route", e.getKey());
+            }
+
+            if (!rateLimits.isEmpty()) {
+                out.type("board_ratelimit_requests_total", "counter", "Requests checked by the per-client rate limiter");
+                for (RateLimitFilter limit : rateLimits) {
+                    out.sample("board_ratelimit_requests_total", limit.getAllowedCount(), "context", limit.getName(), "outcome", "allowed");
+                    out.sample("board_ratelimit_requests_total", limit.getLimitedCount(), "context", limit.getName(), "outcome", "limited");
+                }
+                out.type("board_ratelimit_clients", "gauge", "Clients with a rate limit bucket");
+                for (RateLimitFilter limit : rateLimits) {
+                    out.sample("board_ratelimit_clients", limit.getTrackedClients(), "context", limit.getName());
+                }
+            }
+
+            GroupCommitWriter groupCommit = GroupCommitWriter.getInstance();
+            if (groupCommit.isEnabled()) {
+                out.type("board_group_commit_queue_depth", "gauge", "Posts waiting for the group commit writer");
+                out.sample("board_group_commit_queue_depth", groupCommit.getQueueDepth());
+                out.type("board_group_commit_groups_total", "counter", "Transactions committed by the group commit writer");
+                out.sample("board_group_commit_groups_total", groupCommit.getGroupCount());
+                out.type("board_group_commit_posts_total", "counter", "Posts saved by the group commit writer");
+                out.sample("board_group_commit_posts_total", groupCommit.getPostCount());
+                out.type("board_group_commit_rejected_total", "counter", "Posts rejected because the queue was full");
+                out.sample("board_group_commit_rejected_total", groupCommit.getRejectedCount());
+                out.type("board_group_commit_withdrawn_total", "counter", "Posts withdrawn from the queue after the request timed out");
+                out.sample("board_group_commit_withdrawn_total", groupCommit.getWithdrawnCount());
+                out.type("board_group_commit_fallbacks_total", "counter", "Failed groups retried one post at a time");
+                out.sample("board_group_commit_fallbacks_total", groupCommit.getFallbackCount());
+                out.type("board_group_commit_duration_seconds", "summary", "Time to insert and commit one group");
+                out.summary("board_group_commit_duration_seconds", groupCommit.getCommitLatency());
+            }
+
+            ViewCounter views = ViewCounter.getInstance();
+            out.type("board_views_pending", "gauge", "Post views counted in memory but not yet written to H2");
+            out.sample("board_views_pending", views.getPendingViews());
+            out.type("board_views_flushed_total", "counter", "Post views written to H2 by the write-behind flusher");
+            out.sample("board_views_flushed_total", views.getFlushedViews());
+            out.type("board_views_flush_failures_total", "counter", "View count flushes that failed and will be retried");
+            out.sample("board_views_flush_failures_total", views.getFailedFlushes());
+
+            PostEventBus events = PostEventBus.getInstance();
+            if (events.isEnabled()) {
+                out.type("board_sse_subscribers", "gauge", "Open /api/posts/stream connections");
+                out.sample("board_sse_subscribers", events.getSubscriberCount());
+                out.type("board_sse_events_published_total", "counter", "Post events published to the stream");
+                out.sample("board_sse_events_published_total", events.getPublishedCount());
+                out.type("board_sse_events_replayed_total", "counter", "Events re-sent from history after Last-Event-ID");
+                out.sample("board_sse_events_replayed_total", events.getReplayedCount());
+                out.type("board_sse_resets_total", "counter", "Reconnects that could not be resumed from history");
+                out.sample("board_sse_resets_total", events.getResetCount());
+                out.type("board_sse_slow_disconnects_total", "counter", "Subscribers dropped because their buffer filled up");
+                out.sample("board_sse_slow_disconnects_total", events.getSlowDisconnectCount());
+                out.type("board_sse_stalled_writes_total", "counter", "Subscribers dropped because a write blocked longer than writeTimeoutMs");
+                out.sample("board_sse_stalled_writes_total", events.getStalledWriteCount());
+            }
+
+            PostSnapshot snapshot = PostSnapshot.getInstance();
+            if (snapshot.isEnabled()) {
+                out.type("board_snapshot_posts", "gauge", "Posts in the in-memory list snapshot");
+                out.sample("board_snapshot_posts", snapshot.size());
+                out.type("board_snapshot_versions_total", "counter", "Snapshot versions published by writes");
+                out.sample("board_snapshot_versions_total", snapshot.getVersionCount());
+            }
+
+            out.type("board_authors", "gauge", "Authors with at least one post");
+            out.sample("board_authors", AuthorPostCounts.getInstance().size());
+
+            out.type("board_search_documents", "gauge", "Posts in the search index");
+            out.sample("board_search_documents", PostSearchIndex.getInstance().size());
+
+            AttachmentStore attachments = AttachmentStore.getInstance();
+            out.type("board_attachment_uploads_total", "counter", "Attachment uploads by whether the content was already stored");
+            out.sample("board_attachment_uploads_total", attachments.getStoredCount(), "result", "stored");
+            out.sample("board_attachment_uploads_total", attachments.getDeduplicatedCount(), "result", "deduplicated");
+            out.type("board_attachment_bytes_total", "counter", "Attachment bytes uploaded and served");
+            out.sample("board_attachment_bytes_total", attachments.getBytesIn(), "direction", "in");
+            out.sample("board_attachment_bytes_total", attachments.getBytesOut(), "direction", "out");
+            out.type("board_attachment_gc_files_total", "counter", "Unreferenced attachment files deleted");
+            out.sample("board_attachment_gc_files_total", attachments.getCollectedCount());
+            out.type("board_attachment_gc_bytes_total", "counter", "Bytes freed by deleting unreferenced attachment files");
+            out.sample("board_attachment_gc_bytes_total", attachments.getCollectedBytes());
+            out.type("board_attachment_gc_failures_total", "counter", "Attachment garbage collection runs that failed");
+            out.sample("board_attachment_gc_failures_total", attachments.getFailedCollections());
+
+            out.type("board_ready", "gauge", "1 once warm-up has finished and /ready returns 200");
+            out.sample("board_ready", startup.isReady() ? 1 : 0);
+            out.type("board_startup_seconds", "gauge", "Time from JVM start to each startup phase");
+            for (Map.Entry<String, Long> e : new TreeMap<>(startup.getPhases()).entrySet()) {
+                out.sample("board_startup_seconds", e.getValue() / 1000.0, "phase", e.getKey());
+            }
+        });
+    }
+
+    //  한 지표의 샘플은 모아서 써야 하므로 (exposition 형식) 지표별로 캐시를 돈다
+    private static void writeCaches(Metrics.Exposition out, Map<String, LruCache.Stats> caches) {
+        out.type("board_cache_requests_total", "counter", "Read cache lookups");
+        for (Map.Entry<String, LruCache.Stats> e : caches.entrySet()) {
+            out.sample("board_cache_requests_total", e.getValue().hits, "cache", e.getKey(), "result", "hit");
+            out.sample("board_cache_requests_total", e.getValue().misses, "cache", e.getKey(), "result", "miss");
+        }
+        out.type("board_cache_evictions_total", "counter", "Entries evicted to stay within the cache size limit");
+        for (Map.Entry<String, LruCache.Stats> e : caches.entrySet()) {
+            out.sample("board_cache_evictions_total", e.getValue().evictions, "cache", e.getKey());
+        }
+        out.type("board_cache_size", "gauge", "Entries currently held in the cache");
+        for (Map.Entry<String, LruCache.Stats> e : caches.entrySet()) {
+            out.sample("board_cache_size", e.getValue().size, "cache", e.getKey());
+        }
     }
-}
\ No newline at end of file
+}
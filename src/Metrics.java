@@ -0,0 +1,237 @@
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/*
+ * 애플리케이션 지표 저장소 (Prometheus 텍스트 형식으로 내보냄).
+ * - HTTP: 라우트/메서드/상태별 요청 수, 라우트/메서드별 지연 히스토그램, 컨텍스트별 처리 중 요청 수
+ * - DB: PostDao 메서드별 DB 시간
+ * - JVM: 힙/논힙, GC 횟수/시간, 스레드 수
+ * 기록 경로는 ConcurrentHashMap 조회 + LongAdder/LatencyHistogram 원자적 증가뿐이라 요청끼리 락을 다투지 않는다.
+ * 풀/캐시처럼 다른 곳에 있는 값은 addCollector 로 등록해 내보낼 때 읽는다.
+ */
+public class Metrics {
+    //  Singleton
+    private static final Metrics INSTANCE = new Metrics();
+    public static Metrics getInstance() {
+        return INSTANCE;
+    }
+
+    //  잘못된 경로/메서드로 레이블 조합이 끝없이 늘지 않도록 상한
+    private static final int MAX_ROUTES = 64;
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+
+    private static final class RouteMethod {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Map<Integer, LongAdder> byStatus = new ConcurrentHashMap<>();
+    }
+
+    //  route -> method -> 지표
+    private final Map<String, Map<String, RouteMethod>> http = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> db = new ConcurrentHashMap<>();
+    private final CopyOnWriteArrayList<Consumer<Exposition>> collectors = new CopyOnWriteArrayList<>();
+
+    private Metrics() {
+    }
+
+    // ---- 기록 ----
+
+    public AtomicInteger inFlight(String context) {
+        return inFlight.computeIfAbsent(context, c -> new AtomicInteger());
+    }
+
+    public void recordRequest(String route, String method, int status, long nanos) {
+        Map<String, RouteMethod> methods = http.get(route);
+        if (methods == null) {
+            if (http.size() >= MAX_ROUTES) { route = "other"; }
+            methods = http.computeIfAbsent(route, r -> new ConcurrentHashMap<>());
+        }
+        RouteMethod m = methods.get(method);
+        if (m == null) {
+            m = methods.computeIfAbsent(isStandardMethod(method) ? method : "OTHER", k -> new RouteMethod());
+        }
+        m.latency.record(nanos);
+        LongAdder count = m.byStatus.get(status);
+        if (count == null) {
+            count = m.byStatus.computeIfAbsent(status, s -> new LongAdder());
+        }
+        count.increment();
+    }
+
+    //  PostDao 의 DB 구간 시간 (커넥션 대여부터 결과 읽기까지, 예외로 끝난 경우 포함)
+    public void recordDb(String operation, long nanos) {
+        LatencyHistogram h = db.get(operation);
+        if (h == null) {
+            h = db.computeIfAbsent(operation, o -> new LatencyHistogram());
+        }
+        h.record(nanos);
+    }
+
+    public void addCollector(Consumer<Exposition> collector) {
+        collectors.add(collector);
+    }
+
+    private static boolean isStandardMethod(String method) {
+        switch (method) {
+            case "GET": case "POST": case "PUT": case "DELETE": case "HEAD": case "OPTIONS": case "PATCH":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // ---- 내보내기 ----
+
+    public String scrape() {
+        Exposition out = new Exposition();
+
+        out.type("board_http_requests_total", "counter", "HTTP requests by route, method and status");
+        for (Map.Entry<String, Map<String, RouteMethod>> r : new TreeMap<>(http).entrySet()) {
+            for (Map.Entry<String, RouteMethod> m : new TreeMap<>(r.getValue()).entrySet()) {
+                for (Map.Entry<Integer, LongAdder> s : new TreeMap<>(m.getValue().byStatus).entrySet()) {
+                    String status = s.getKey() < 0 ? "none" : String.valueOf(s.getKey());
+                    out.sample("board_http_requests_total", s.getValue().sum(),
+                            "route", r.getKey(), "method", m.getKey(), "status", status);
+                }
+            }
+        }
+        out.type("board_http_request_duration_seconds", "summary", "HTTP request latency");
+        for (Map.Entry<String, Map<String, RouteMethod>> r : new TreeMap<>(http).entrySet()) {
+            for (Map.Entry<String, RouteMethod> m : new TreeMap<>(r.getValue()).entrySet()) {
+                out.summary("board_http_request_duration_seconds", m.getValue().latency,
+                        "route", r.getKey(), "method", m.getKey());
+            }
+        }
+        out.type("board_http_in_flight_requests", "gauge", "Requests currently being handled per context");
+        for (Map.Entry<String, AtomicInteger> e : new TreeMap<>(inFlight).entrySet()) {
+            out.sample("board_http_in_flight_requests", e.getValue().get(), "context", e.getKey());
+        }
+
+        out.type("board_db_duration_seconds", "summary", "Database time per PostDao method");
+        for (Map.Entry<String, LatencyHistogram> e : new TreeMap<>(db).entrySet()) {
+            out.summary("board_db_duration_seconds", e.getValue(), "method", e.getKey());
+        }
+
+        for (Consumer<Exposition> collector : collectors) {
+            collector.accept(out);
+        }
+        writeJvm(out);
+        return out.toString();
+    }
+
+    private static void writeJvm(Exposition out) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+        out.type("jvm_memory_used_bytes", "gauge", "Used JVM memory");
+        out.sample("jvm_memory_used_bytes", heap.getUsed(), "area", "heap");
+        out.sample("jvm_memory_used_bytes", nonHeap.getUsed(), "area", "nonheap");
+        out.type("jvm_memory_committed_bytes", "gauge", "Committed JVM memory");
+        out.sample("jvm_memory_committed_bytes", heap.getCommitted(), "area", "heap");
+        out.sample("jvm_memory_committed_bytes", nonHeap.getCommitted(), "area", "nonheap");
+        out.type("jvm_memory_max_bytes", "gauge", "Max JVM memory (-1 if undefined)");
+        out.sample("jvm_memory_max_bytes", heap.getMax(), "area", "heap");
+
+        out.type("jvm_gc_collections_total", "counter", "GC collections per collector");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.sample("jvm_gc_collections_total", gc.getCollectionCount(), "gc", gc.getName());
+        }
+        out.type("jvm_gc_collection_seconds_total", "counter", "Time spent in GC per collector");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            out.sample("jvm_gc_collection_seconds_total", gc.getCollectionTime() / 1000.0, "gc", gc.getName());
+        }
+        out.type("jvm_threads_live", "gauge", "Live JVM threads");
+        out.sample("jvm_threads_live", ManagementFactory.getThreadMXBean().getThreadCount());
+        out.type("process_uptime_seconds", "gauge", "JVM uptime");
+        out.sample("process_uptime_seconds", ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+
+    //  Prometheus 텍스트 형식 (0.0.4) 작성기
+    public static class Exposition {
+        private final StringBuilder sb = new StringBuilder(8192);
+
+        public void type(String name, String type, String help) {
+            sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+            sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        }
+
+        //  labels: 이름, 값, 이름, 값 ...
+        public void sample(String name, double value, String... labels) {
+            sb.append(name);
+            appendLabels(labels, null);
+            sb.append(' ');
+            appendValue(value);
+            sb.append('\n');
+        }
+
+        //  나노초 히스토그램을 초 단위 summary (p50/p99/p999, _sum, _count) 로
+        public void summary(String name, LatencyHistogram h, String... labels) {
+            for (double q : QUANTILES) {
+                sb.append(name);
+                appendLabels(labels, String.valueOf(q));
+                sb.append(' ');
+                appendValue(h.percentile(q) / 1e9);
+                sb.append('\n');
+            }
+            sb.append(name).append("_sum");
+            appendLabels(labels, null);
+            sb.append(' ');
+            appendValue(h.getSumNanos() / 1e9);
+            sb.append('\n');
+            sb.append(name).append("_count");
+            appendLabels(labels, null);
+            sb.append(' ').append(h.getCount()).append('\n');
+        }
+
+        private void appendLabels(String[] labels, String quantile) {
+            if (labels.length == 0 && quantile == null) { return; }
+            sb.append('{');
+            for (int i = 0; i + 1 < labels.length; i += 2) {
+                if (i > 0) { sb.append(','); }
+                sb.append(labels[i]).append("=\"");
+                escape(labels[i + 1]);
+                sb.append('"');
+            }
+            if (quantile != null) {
+                if (labels.length > 0) { sb.append(','); }
+                sb.append("quantile=\"").append(quantile).append('"');
+            }
+            sb.append('}');
+        }
+
+        private void appendValue(double value) {
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+                sb.append((long) value);
+            } else {
+                sb.append(value);
+            }
+        }
+
+        private void escape(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\' || c == '"') {
+                    sb.append('\\').append(c);
+                } else if (c == '\n') {
+                    sb.append("\\n");
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+}
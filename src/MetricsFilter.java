@@ -0,0 +1,40 @@
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//  컨텍스트의 모든 요청을 감싸 처리 시간, 상태 코드, 처리 중 요청 수를 Metrics 에 기록 (필터 목록의 맨 앞에 둔다)
+public class MetricsFilter extends Filter {
+    private final Metrics metrics = Metrics.getInstance();
+    private final AtomicInteger inFlight;
+    //  /metrics, /ready 같은 운영용 요청은 time-to-first-request 에 세지 않는다
+    private final Startup startup;
+
+    public MetricsFilter(String context) {
+        this.inFlight = metrics.inFlight(context);
+        this.startup = context.startsWith("/api/") ? Startup.getInstance() : null;
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            chain.doFilter(exchange);
+        } finally {
+            inFlight.decrementAndGet();
+            //  응답을 보내기 전에 예외로 끝났으면 상태 코드는 -1 ("none")
+            metrics.recordRequest(HttpUtil.routeOf(exchange), exchange.getRequestMethod(),
+                    exchange.getResponseCode(), System.nanoTime() - start);
+            if (startup != null) {
+                startup.requestCompleted();
+            }
+        }
+    }
+
+    @Override
+    public String description() {
+        return "request metrics";
+    }
+}
@@ -0,0 +1,25 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+//  GET /metrics - Prometheus 텍스트 형식
+public class MetricsHandler implements HttpHandler {
+    private final Metrics metrics = Metrics.getInstance();
+
+    @Override
+    public void handle(HttpExchange ex) throws IOException {
+        if (!"GET".equalsIgnoreCase(ex.getRequestMethod())) {
+            HttpUtil.sendJson(ex, 405, SimpleJson.obj("error", "method_not_allowed"));
+            return;
+        }
+        byte[] body = metrics.scrape().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+        ex.sendResponseHeaders(200, body.length);
+        try (OutputStream os = ex.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * PBKDF2 해시 전용 스레드 풀.
+ * 요청 스레드에서 바로 12만 번 반복을 돌리면 가입이 몰릴 때 CPU 를 다 써서 게시글 조회까지 막히므로,
+ * 스레드 수와 큐 길이를 제한한 별도 풀에서 계산한다. 큐가 가득 차면 RejectedExecutionException 으로
+ * 즉시 거절하고, 호출 측은 503 으로 응답한다.
+ */
+public class PasswordHasher {
+    private static final Logger logger = Logger.getLogger(PasswordHasher.class.getName());
+
+    //  Singleton
+    private static final PasswordHasher INSTANCE = new PasswordHasher(
+            AppConfig.getInt("board.hash.threads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+            AppConfig.getInt("board.hash.queueLimit", 32),
+            AppConfig.getLong("board.hash.timeoutMs", 10_000L));
+    public static PasswordHasher getInstance() {
+        return INSTANCE;
+    }
+
+    //  처음 필요할 때 한 번만 만든다 (현재 설정의 반복 횟수)
+    private static class DummyHash {
+        static final PasswordUtil.Hash HASH = PasswordUtil.hashPassword("dummy-password-for-unknown-users");
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final LatencyHistogram hashLatency = new LatencyHistogram();
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder rehashFailed = new LongAdder();
+
+    private PasswordHasher(int threads, int queueLimit, long timeoutMillis) {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueLimit)),
+                r -> {
+                    Thread t = new Thread(r, "password-hasher-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /* 큐가 가득 차면 RejectedExecutionException */
+    public PasswordUtil.Hash hash(String password) throws InterruptedException, TimeoutException {
+        return submit(() -> PasswordUtil.hashPassword(password));
+    }
+
+    /*
+     * 비밀번호 검증. 맞았는데 저장된 반복 횟수가 현재 설정과 다르면
+     * 같은 작업 안에서 새 설정으로 다시 해시해 UserStore 에 저장한다.
+     * 재해시 저장은 덤이므로 실패해도 로그인은 성공시킨다 (기존 해시가 그대로 있어 다음 로그인 때 다시 시도).
+     */
+    public boolean verify(UserStore.User user, String password) throws InterruptedException, TimeoutException {
+        return submit(() -> {
+            if (!PasswordUtil.verify(password, user.salt, user.passwordHash, user.iterations)) {
+                return false;
+            }
+            if (PasswordUtil.needsRehash(user.iterations)) {
+                try {
+                    PasswordUtil.Hash h = PasswordUtil.hashPassword(password);
+                    UserStore.getInstance().save(new UserStore.User(
+                            user.id, user.email, h.hash, h.salt, h.iterations, user.createdAt));
+                    rehashed.increment();
+                } catch (SQLException | RuntimeException e) {
+                    rehashFailed.increment();
+                    logger.log(Level.WARNING, "비밀번호 재해시 저장 실패 (user " + user.id + ")", e);
+                }
+            }
+            return true;
+        });
+    }
+
+    /*
+     * 없는 이메일로 로그인할 때 호출. 더미 해시를 같은 풀에서 같은 반복 횟수로 검증해
+     * 응답 시간만으로 가입 여부를 알 수 없게 한다 (결과는 항상 false).
+     */
+    public boolean verifyUnknown(String password) throws InterruptedException, TimeoutException {
+        return submit(() -> {
+            PasswordUtil.Hash dummy = DummyHash.HASH;
+            PasswordUtil.verify(password, dummy.salt, dummy.hash, dummy.iterations);
+            return false;
+        });
+    }
+
+    public LatencyHistogram getHashLatency() { return hashLatency; }
+    public LatencyHistogram getQueueWait() { return queueWait; }
+    public int getQueueDepth() { return executor.getQueue().size(); }
+    public int getActiveCount() { return executor.getActiveCount(); }
+    public long getRejectedCount() { return rejected.sum(); }
+    public long getRehashedCount() { return rehashed.sum(); }
+    public long getRehashFailedCount() { return rehashFailed.sum(); }
+
+    private <T> T submit(Callable<T> work) throws InterruptedException, TimeoutException {
+        long enqueued = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - enqueued);
+                try {
+                    return work.call();
+                } finally {
+                    hashLatency.record(System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) { throw (RuntimeException) cause; }
+            throw new IllegalStateException(cause);
+        }
+    }
+}
@@ -1,46 +1,76 @@
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 
 public class PasswordUtil {
     public static class Hash {
         public final byte[] hash;
         public final byte[] salt;
-        public Hash(byte[] hash, byte[] salt) {
+        public final int iterations;
+        public Hash(byte[] hash, byte[] salt, int iterations) {
             this.hash = hash;
             this.salt = salt;
+            this.iterations = iterations;
         }
     }
 
     private static final SecureRandom RAND = new SecureRandom();
-    private static final int ITER = 120_000;
+    //  기존에 저장된 해시의 반복 횟수 (반복 횟수 정보 없이 저장된 사용자)
+    public static final int LEGACY_ITER = 120_000;
+    private static final int ITER = AppConfig.getInt("board.password.iterations", LEGACY_ITER);
     private static final int KEYLEN = 256;
     private static final String ALG = "PBKDF2WithHmacSHA256";
 
+    //  SecretKeyFactory.getInstance 는 프로바이더 조회 비용이 있어 스레드마다 하나만 만든다
+    private static final ThreadLocal<SecretKeyFactory> FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(ALG);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(ALG + " 를 사용할 수 없습니다", e);
+        }
+    });
+
+    public static int currentIterations() {
+        return ITER;
+    }
+
     public static Hash hashPassword(String password) {
         try {
             byte[] salt = new byte[16];
             RAND.nextBytes(salt);
-            byte[] hash = derive(password, salt);
-            return new Hash(hash, salt);
+            byte[] hash = derive(password, salt, ITER);
+            return new Hash(hash, salt, ITER);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
     }
 
     public static boolean verify(String password, byte[] salt, byte[] expected) {
+        return verify(password, salt, expected, LEGACY_ITER);
+    }
+
+    public static boolean verify(String password, byte[] salt, byte[] expected, int iterations) {
         try {
-            byte[] got = derive(password, salt);
+            byte[] got = derive(password, salt, iterations);
             return MessageDigest.isEqual(got, expected);
         } catch (Exception e) {
             return false;
         }
     }
 
-    private static byte[] derive(String password, byte[] salt) throws Exception {
-        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, ITER, KEYLEN);
-        SecretKeyFactory f = SecretKeyFactory.getInstance(ALG);
-        return f.generateSecret(spec).getEncoded();
+    //  저장된 비용 파라미터가 현재 설정과 다르면 다음 로그인 때 다시 해시한다
+    public static boolean needsRehash(int storedIterations) {
+        return storedIterations != ITER;
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) throws Exception {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, KEYLEN);
+        try {
+            return FACTORY.get().generateSecret(spec).getEncoded();
+        } finally {
+            spec.clearPassword();
+        }
     }
 }
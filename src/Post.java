@@ -6,6 +6,10 @@ public class Post {
     private String content;
     private String author;
     private LocalDateTime createdAt;
+    //  마지막 수정 시각 (수정된 적 없으면 createdAt), 수정할 때마다 1 씩 오르는 버전 - ETag 용
+    private LocalDateTime updatedAt;
+    private long version;
+    private long viewCount;
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -17,5 +21,25 @@ public class Post {
     public void setAuthor(String author) { this.author = author; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    public long getViewCount() { return viewCount; }
+    public void setViewCount(long viewCount) { this.viewCount = viewCount; }
+
+    //  캐시에 있는 글은 여러 요청이 공유하므로 응답용으로 값을 바꿀 때는 복사본에
+    public Post copy() {
+        Post p = new Post();
+        p.id = id;
+        p.title = title;
+        p.content = content;
+        p.author = author;
+        p.createdAt = createdAt;
+        p.updatedAt = updatedAt;
+        p.version = version;
+        p.viewCount = viewCount;
+        return p;
+    }
 
 }
@@ -0,0 +1,88 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * PostDao 앞단의 읽기 캐시.
+ * - byId: 단건 조회 결과
+ * - firstPages: 커서 없는 첫 페이지 (limit 별)
+ * 쓰기(save/update/delete)가 일어나면 세대(generation)를 올리고 관련 항목을 무효화한다.
+ * 읽기는 DB 조회 전에 세대를 기억해 두었다가, 그 사이 쓰기가 있었으면 캐시에 넣지 않는다.
+ * (무효화 직후 오래된 값이 다시 들어가는 경쟁을 막기 위함)
+ * 확인과 put 사이에 쓰기가 끼어들 수 있으므로 put 뒤에 세대를 한 번 더 보고, 바뀌었으면 넣은 항목을 지운다.
+ * 쓰기는 세대를 올린 뒤 무효화하므로, 그 무효화가 put 보다 먼저였다면 이 재확인이 세대 변화를 본다.
+ */
+public class PostCache {
+    //  Singleton
+    private static final PostCache INSTANCE = new PostCache(
+            AppConfig.getBoolean("board.cache.enabled", true),
+            AppConfig.getInt("board.cache.posts.maxSize", 1_000),
+            AppConfig.getInt("board.cache.pages.maxSize", 16),
+            AppConfig.getLong("board.cache.ttlMs", 0L));
+    public static PostCache getInstance() {
+        return INSTANCE;
+    }
+
+    private final boolean enabled;
+    private final LruCache<Long, Post> byId;
+    private final LruCache<Integer, PostPage> firstPages;
+    private final AtomicLong generation = new AtomicLong();
+
+    private PostCache(boolean enabled, int maxPosts, int maxPages, long ttlMillis) {
+        this.enabled = enabled;
+        this.byId = new LruCache<>(maxPosts, ttlMillis);
+        this.firstPages = new LruCache<>(maxPages, ttlMillis);
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public Post getPost(Long id) {
+        return enabled ? byId.get(id) : null;
+    }
+
+    public void putPost(Post post, long readGeneration) {
+        if (enabled && generation.get() == readGeneration) {
+            byId.put(post.getId(), post);
+            if (generation.get() != readGeneration) {
+                byId.invalidate(post.getId());
+            }
+        }
+    }
+
+    public PostPage getFirstPage(int limit) {
+        return enabled ? firstPages.get(limit) : null;
+    }
+
+    public void putFirstPage(int limit, PostPage page, long readGeneration) {
+        if (enabled && generation.get() == readGeneration) {
+            firstPages.put(limit, page);
+            if (generation.get() != readGeneration) {
+                firstPages.invalidate(limit);
+            }
+        }
+    }
+
+    //  새 글: 단건 캐시는 그대로, 첫 페이지들만 무효화
+    public void onInsert() {
+        generation.incrementAndGet();
+        firstPages.invalidateAll();
+    }
+
+    //  수정/삭제: 해당 글과 첫 페이지들 무효화
+    public void onChange(Long id) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+        firstPages.invalidateAll();
+    }
+
+    //  조회수처럼 ETag/목록과 무관한 값이 DB 에서 바뀐 글: 단건 캐시만 비우고, 세대를 올려 진행 중인 읽기가 옛 값을 넣지 못하게 한다
+    public void evictPost(Long id) {
+        generation.incrementAndGet();
+        byId.invalidate(id);
+    }
+
+    public LruCache.Stats postStats() { return byId.stats(); }
+    public LruCache.Stats pageStats() { return firstPages.stats(); }
+}
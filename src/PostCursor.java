@@ -0,0 +1,42 @@
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+//  키셋 페이지네이션 커서: 마지막으로 내려준 게시글의 (createdAt, id)
+public class PostCursor {
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getUrlDecoder();
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public PostCursor(LocalDateTime createdAt, long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static PostCursor of(Post post) {
+        return new PostCursor(post.getCreatedAt(), post.getId());
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public long getId() { return id; }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return B64.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /* 형식이 잘못된 커서면 IllegalArgumentException */
+    public static PostCursor decode(String token) {
+        try {
+            String raw = new String(B64D.decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) { throw new IllegalArgumentException("Invalid cursor"); }
+            return new PostCursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
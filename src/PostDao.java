@@ -1,124 +1,481 @@
+import java.io.IOException;
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 
 public class PostDao {
+    private final PostCache cache = PostCache.getInstance();
+    private final PostSearchIndex searchIndex = PostSearchIndex.getInstance();
+    private final BoardRevision revision = BoardRevision.getInstance();
+    private final Metrics metrics = Metrics.getInstance();
+    private final AuthorPostCounts authorCounts = AuthorPostCounts.getInstance();
+    private final PostEventBus events = PostEventBus.getInstance();
+    private final PostSnapshot snapshot = PostSnapshot.getInstance();
+    private final ViewCounter viewCounter = ViewCounter.getInstance();
+
     public List<Post> findAll() throws SQLException {
         List<Post> posts = new ArrayList<>();
+        scanAll(posts::add);
+        return posts;
+    }
+
+    //  전체 게시글을 리스트로 모으지 않고 한 행씩 넘긴다 (색인 재구성 등)
+    public void scanAll(Consumer<Post> consumer) throws SQLException {
         String sql = "SELECT * FROM post ORDER BY createdAt DESC";
 
+        long dbStart = System.nanoTime();
         try (Connection conn = DatabaseUtil.getConnection();
             PreparedStatement ps = conn.prepareStatement(sql);
             ResultSet rs = ps.executeQuery()
         ) {
             while (rs.next()) {
-                Post post = extractPostFromResultSet(rs);
-                posts.add(post);
+                consumer.accept(extractPostFromResultSet(rs));
             }
+        } finally {
+            metrics.recordDb("scanAll", System.nanoTime() - dbStart);
         }
-        return posts;
     }
 
     public Post save(Post post) throws SQLException {
-        // 옵션 1: createdAt을 INSERT에서 제외 (DB의 DEFAULT CURRENT_TIMESTAMP 사용)
-        String sql = "INSERT INTO post (title, content, author) VALUES (?, ?, ?)";
-
-        try (Connection conn = DatabaseUtil.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+        // createdAt은 INSERT에서 제외 (DB의 DEFAULT CURRENT_TIMESTAMP 사용)
+        // FINAL TABLE 로 생성된 id/createdAt 을 INSERT 와 같은 왕복에서 받아온다.
+        String sql = "SELECT id, createdAt FROM FINAL TABLE (INSERT INTO post (title, content, author) VALUES (?, ?, ?))";
 
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, post.getTitle());
             ps.setString(2, post.getContent());
             ps.setString(3, post.getAuthor());
-            // createdAt은 데이터베이스가 자동으로 설정
 
-            int affectedRows = ps.executeUpdate();
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Creation failed, no rows affected.");
+                }
+                post.setId(rs.getLong(1));
+                Timestamp createdAt = rs.getTimestamp(2);
+                if (createdAt != null) {
+                    post.setCreatedAt(createdAt.toLocalDateTime());
+                }
+                post.setUpdatedAt(post.getCreatedAt());
+                post.setVersion(0);
+            }
+        } finally {
+            metrics.recordDb("save", System.nanoTime() - dbStart);
+        }
+        cache.onInsert();
+        revision.bump();
+        searchIndex.index(post);
+        authorCounts.added(post.getAuthor());
+        snapshot.put(post);
+        events.publishCreated(post);
+        return post;
+    }
+
+    //  대량 등록: chunkSize 개씩 addBatch/executeBatch, 전체를 한 트랜잭션으로 커밋
+    //  하나라도 실패하면 전부 롤백된다. 생성된 id/createdAt 은 각 Post 에 채우고 id 를 입력 순서대로 반환.
+    public List<Long> saveAll(List<Post> posts, int chunkSize) throws SQLException {
+        String sql = "INSERT INTO post (title, content, author) VALUES (?, ?, ?)";
+        List<Long> ids = new ArrayList<>(posts.size());
+        List<Timestamp> createdAts = new ArrayList<>(posts.size());
+        if (posts.isEmpty()) { return ids; }
 
-            if (affectedRows == 0) {
-                throw new SQLException("Creation failed, no rows affected.");
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql, new String[]{"id", "createdAt"})) {
+                int pending = 0;
+                for (Post post : posts) {
+                    ps.setString(1, post.getTitle());
+                    ps.setString(2, post.getContent());
+                    ps.setString(3, post.getAuthor());
+                    ps.addBatch();
+                    if (++pending == chunkSize) {
+                        executeChunk(ps, ids, createdAts);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeChunk(ps, ids, createdAts);
+                }
+                if (ids.size() != posts.size()) {
+                    throw new SQLException("Batch creation failed, expected " + posts.size() + " ids but got " + ids.size());
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
+        } finally {
+            metrics.recordDb("saveAll", System.nanoTime() - dbStart);
+        }
 
-            // 생성된 ID 가져오기
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-                if (rs.next()) {
-                    post.setId(rs.getLong(1));
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            post.setId(ids.get(i));
+            if (createdAts.get(i) != null) {
+                post.setCreatedAt(createdAts.get(i).toLocalDateTime());
+            }
+            post.setUpdatedAt(post.getCreatedAt());
+            post.setVersion(0);
+            searchIndex.index(post);
+            authorCounts.added(post.getAuthor());
+            snapshot.put(post);
+            events.publishCreated(post);
+        }
+        cache.onInsert();
+        revision.bump();
+        return ids;
+    }
+
+    //  그룹 커밋(GroupCommitWriter): 한 트랜잭션 안에서 글마다 FINAL TABLE INSERT 로 id/createdAt 을 받고 커밋은 한 번
+    //  하나라도 실패하면 전부 롤백되며, 커밋된 뒤에만 각 Post 에 id/createdAt 을 채운다.
+    public void saveGroup(List<Post> posts) throws SQLException {
+        String sql = "SELECT id, createdAt FROM FINAL TABLE (INSERT INTO post (title, content, author) VALUES (?, ?, ?))";
+        if (posts.isEmpty()) { return; }
+        long[] ids = new long[posts.size()];
+        Timestamp[] createdAts = new Timestamp[posts.size()];
 
-                    // 생성된 게시글의 전체 정보를 다시 조회하여 createdAt 포함
-                    Post savedPost = findById(post.getId());
-                    if (savedPost != null) {
-                        post.setCreatedAt(savedPost.getCreatedAt());
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                for (int i = 0; i < posts.size(); i++) {
+                    Post post = posts.get(i);
+                    ps.setString(1, post.getTitle());
+                    ps.setString(2, post.getContent());
+                    ps.setString(3, post.getAuthor());
+                    try (ResultSet rs = ps.executeQuery()) {
+                        if (!rs.next()) {
+                            throw new SQLException("Creation failed, no rows affected.");
+                        }
+                        ids[i] = rs.getLong(1);
+                        createdAts[i] = rs.getTimestamp(2);
                     }
-                } else {
-                    throw new SQLException("Creation failed, no ID obtained");
                 }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
             }
+        } finally {
+            metrics.recordDb("saveGroup", System.nanoTime() - dbStart);
         }
-        return post;
+
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            post.setId(ids[i]);
+            if (createdAts[i] != null) {
+                post.setCreatedAt(createdAts[i].toLocalDateTime());
+            }
+            post.setUpdatedAt(post.getCreatedAt());
+            post.setVersion(0);
+            searchIndex.index(post);
+            authorCounts.added(post.getAuthor());
+            snapshot.put(post);
+            events.publishCreated(post);
+        }
+        cache.onInsert();
+        revision.bump();
+    }
+
+    private void executeChunk(PreparedStatement ps, List<Long> ids, List<Timestamp> createdAts) throws SQLException {
+        ps.executeBatch();
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            while (keys.next()) {
+                ids.add(keys.getLong(1));
+                createdAts.add(keys.getTimestamp(2));
+            }
+        }
+        ps.clearBatch();
     }
 
     public Post findById(Long id) throws SQLException {
+        Post cached = cache.getPost(id);
+        if (cached != null) {
+            return cached;
+        }
+
         String sql = "SELECT * FROM post WHERE id = ?";
+        long generation = cache.currentGeneration();
 
+        long dbStart = System.nanoTime();
         try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, id);
 
             try (ResultSet rs = ps.executeQuery()) {
                 if (rs.next()) {
-                    return extractPostFromResultSet(rs);
+                    Post post = extractPostFromResultSet(rs);
+                    cache.putPost(post, generation);
+                    return post;
                 }
             }
+        } finally {
+            metrics.recordDb("findById", System.nanoTime() - dbStart);
         }
         return null;
     }
 
-    public boolean update(Post post) throws SQLException {
-        String sql = "UPDATE post SET title = ?, content = ?, author = ? WHERE id = ?";
+    /*
+     * 여러 id 를 한 번에 조회 (검색 결과 등). 캐시에 있는 것은 캐시에서, 나머지는 IN 쿼리 한 번으로 읽는다.
+     * 없는 id 는 결과 맵에 빠진다 (순서는 호출 측이 ids 순서대로 꺼내 쓴다).
+     */
+    public Map<Long, Post> findByIds(List<Long> ids) throws SQLException {
+        Map<Long, Post> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Post cached = cache.getPost(id);
+            if (cached != null) {
+                found.put(id, cached);
+            } else if (!missing.contains(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT * FROM post WHERE id IN (");
+        for (int i = 0; i < missing.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(')');
+        long generation = cache.currentGeneration();
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < missing.size(); i++) {
+                ps.setLong(i + 1, missing.get(i));
+            }
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Post post = extractPostFromResultSet(rs);
+                    cache.putPost(post, generation);
+                    found.put(post.getId(), post);
+                }
+            }
+        } finally {
+            metrics.recordDb("findByIds", System.nanoTime() - dbStart);
+        }
+        return found;
+    }
+
+    /* 수정된 행을 반환, 해당 id 가 없으면 null (UPDATE 한 번으로 존재 확인과 재조회를 대신함) */
+    //  OLD TABLE 로 수정 전 행(이전 작성자 포함)을 같은 왕복에서 받는다. 수정 후 행은 수정 전 행에
+    //  바인딩한 값과 version + 1 을 얹은 것이므로 (createdAt/viewCount 는 그대로) 다시 읽지 않는다
+    public Post update(Post post) throws SQLException {
+        String sql = "SELECT * FROM OLD TABLE (UPDATE post SET title = ?, content = ?, author = ?, "
+                + "updatedAt = ?, version = version + 1 WHERE id = ?)";
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
 
+        String previousAuthor = null;
+        Post updated = null;
+        long dbStart = System.nanoTime();
         try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, post.getTitle());
             ps.setString(2, post.getContent());
             ps.setString(3, post.getAuthor());
-            ps.setLong(4, post.getId());
+            ps.setTimestamp(4, Timestamp.valueOf(updatedAt));
+            ps.setLong(5, post.getId());
 
-            int affectedRows = ps.executeUpdate();
-            return affectedRows > 0;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    updated = extractPostFromResultSet(rs);
+                    previousAuthor = updated.getAuthor();
+                    updated.setTitle(post.getTitle());
+                    updated.setContent(post.getContent());
+                    updated.setAuthor(post.getAuthor());
+                    updated.setUpdatedAt(updatedAt);
+                    updated.setVersion(updated.getVersion() + 1);
+                }
+            }
+        } finally {
+            metrics.recordDb("update", System.nanoTime() - dbStart);
         }
+
+        cache.onChange(post.getId());
+        if (updated != null) {
+            revision.bump();
+            authorCounts.moved(previousAuthor, updated.getAuthor());
+            snapshot.put(updated);
+            events.publishUpdated(updated);
+        }
+        searchIndex.index(updated);
+        return updated;
     }
 
+    /* 삭제된 행이 없으면 false (존재하지 않는 id) */
     public boolean delete(Long id) throws SQLException {
-        String sql = "DELETE FROM post WHERE id = ?";
+        //  OLD TABLE 로 삭제된 행의 작성자/작성 시각을 같은 왕복에서 받는다 (작성자별 글 수, 스냅샷 반영용)
+        String sql = "SELECT author, createdAt FROM OLD TABLE (DELETE FROM post WHERE id = ?)";
 
+        long dbStart = System.nanoTime();
         try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setLong(1, id);
 
-            int affectedRows = ps.executeUpdate();
+            String author = null;
+            Timestamp createdAt = null;
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    author = rs.getString(1);
+                    createdAt = rs.getTimestamp(2);
+                }
+            }
+            boolean deleted = author != null;
+            cache.onChange(id);
+            if (deleted) {
+                revision.bump();
+                authorCounts.removed(author);
+                if (createdAt != null) {
+                    snapshot.remove(id, createdAt.toLocalDateTime());
+                }
+                events.publishDeleted(id);
+            }
+            searchIndex.remove(id);
+            viewCounter.forget(id);
+
+            return deleted;
+        } finally {
+            metrics.recordDb("delete", System.nanoTime() - dbStart);
+        }
+    }
 
-            return affectedRows > 0;
+    //  ViewCounter 의 write-behind 반영: id -> 더할 조회수를 chunkSize 개씩 배치 UPDATE, 한 트랜잭션
+    //  조회수는 내용이 아니므로 캐시 세대/게시판 리비전은 건드리지 않는다
+    public void addViewCounts(Map<Long, Long> deltas, int chunkSize) throws SQLException {
+        String sql = "UPDATE post SET viewCount = viewCount + ? WHERE id = ?";
+        if (deltas.isEmpty()) { return; }
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                int pending = 0;
+                for (Map.Entry<Long, Long> e : deltas.entrySet()) {
+                    ps.setLong(1, e.getValue());
+                    ps.setLong(2, e.getKey());
+                    ps.addBatch();
+                    if (++pending == chunkSize) {
+                        ps.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    ps.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } finally {
+            metrics.recordDb("addViewCounts", System.nanoTime() - dbStart);
         }
     }
 
-    public List<Post> findAllWithPagination(int offset, int limit) throws SQLException {
-        List<Post> posts = new ArrayList<>();
-        String sql = "SELECT * FROM post ORDER BY createdAt DESC LIMIT ? OFFSET ?";
+    //  한 행씩 넘겨받는 콜백 (응답 스트림에 바로 쓰는 용도)
+    public interface PostConsumer {
+        void accept(Post post) throws IOException;
+    }
 
+    //  키셋 페이지네이션: (createdAt, id) 내림차순으로 cursor 다음부터 limit 개
+    //  OFFSET 과 달리 페이지 깊이와 상관없이 idx_post_created_id 인덱스 범위 탐색으로 끝난다.
+    //  첫 페이지(cursor == null)는 PostCache 에 캐싱된다. 스냅샷 모드면 DB 대신 PostSnapshot 에서 읽는다.
+    public PostPage findPage(PostCursor cursor, int limit) throws SQLException {
+        if (cursor == null && !snapshot.isReady()) {
+            PostPage cached = cache.getFirstPage(limit);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        long generation = cache.currentGeneration();
+        List<Post> posts = new ArrayList<>(limit);
+        try {
+            String nextCursor = streamPage(cursor, limit, posts::add);
+            PostPage page = new PostPage(Collections.unmodifiableList(posts), nextCursor);
+            if (cursor == null && !snapshot.isReady()) {
+                cache.putFirstPage(limit, page, generation);
+            }
+            return page;
+        } catch (IOException e) {
+            // 리스트에 담기만 하므로 발생하지 않음
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /* 페이지의 각 게시글을 (커넥션을 돌려준 뒤) consumer 로 넘기고, 다음 페이지 커서(없으면 null)를 반환 */
+    public String streamPage(PostCursor cursor, int limit, PostConsumer consumer) throws SQLException, IOException {
+        return streamPage(null, cursor, limit, consumer);
+    }
+
+    //  작성자 피드: 같은 키셋 페이지네이션을 idx_post_author_created_id (author, createdAt DESC, id DESC) 범위 탐색으로
+    public String streamAuthorPage(String author, PostCursor cursor, int limit, PostConsumer consumer)
+            throws SQLException, IOException {
+        return streamPage(author, cursor, limit, consumer);
+    }
+
+    private String streamPage(String author, PostCursor cursor, int limit, PostConsumer consumer)
+            throws SQLException, IOException {
+        String where = author == null ? "" : "author = ?";
+        if (author == null && snapshot.isReady()) {
+            return snapshot.page(cursor, limit, consumer);
+        }
+        if (cursor != null) {
+            where += (where.isEmpty() ? "" : " AND ") + "createdAt <= ? AND (createdAt < ? OR id < ?)";
+        }
+        String sql = "SELECT * FROM post " + (where.isEmpty() ? "" : "WHERE " + where + " ")
+                + "ORDER BY createdAt DESC, id DESC LIMIT ?";
+
+        //  한 페이지(limit 개, 호출 측이 MAX_PAGE_SIZE 로 제한)를 먼저 다 읽고 커넥션을 돌려준 뒤 consumer 로 넘긴다.
+        //  consumer 가 느린 클라이언트 소켓에 쓰는 동안 풀 커넥션을 잡고 있지 않도록
+        List<Post> posts = new ArrayList<>(Math.min(limit, 128));
+        String nextCursor = null;
+        long dbStart = System.nanoTime();
         try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, limit);
-            ps.setInt(2, offset);
+            int idx = 1;
+            if (author != null) {
+                ps.setString(idx++, author);
+            }
+            if (cursor != null) {
+                Timestamp ts = Timestamp.valueOf(cursor.getCreatedAt());
+                ps.setTimestamp(idx++, ts);
+                ps.setTimestamp(idx++, ts);
+                ps.setLong(idx++, cursor.getId());
+            }
+            //  다음 페이지 존재 여부를 알기 위해 하나 더 읽는다
+            ps.setInt(idx, limit + 1);
 
             try (ResultSet rs = ps.executeQuery()) {
                 while (rs.next()) {
+                    if (posts.size() == limit) {
+                        nextCursor = PostCursor.of(posts.get(limit - 1)).encode();
+                        break;
+                    }
                     posts.add(extractPostFromResultSet(rs));
                 }
             }
+        } finally {
+            metrics.recordDb(author == null ? "streamPage" : "streamAuthorPage", System.nanoTime() - dbStart);
         }
-        return posts;
+        for (Post post : posts) {
+            consumer.accept(post);
+        }
+        return nextCursor;
     }
 
     public List<Post> findByAuthor(String author) throws SQLException {
         List<Post> posts = new ArrayList<>();
-        String sql = "SELECT * FROM post WHERE author = ? ORDER BY createdAt DESC";
+        String sql = "SELECT * FROM post WHERE author = ? ORDER BY createdAt DESC, id DESC";
 
+        long dbStart = System.nanoTime();
         try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
             ps.setString(1, author);
 
@@ -127,10 +484,31 @@ public class PostDao {
                     posts.add(extractPostFromResultSet(rs));
                 }
             }
+        } finally {
+            metrics.recordDb("findByAuthor", System.nanoTime() - dbStart);
         }
         return posts;
     }
 
+    //  작성자별 글 수 (AuthorPostCounts 초기화용, 작성자 인덱스만 훑는다)
+    public Map<String, Long> countByAuthor() throws SQLException {
+        Map<String, Long> counts = new HashMap<>();
+        String sql = "SELECT author, COUNT(*) FROM post GROUP BY author";
+
+        long dbStart = System.nanoTime();
+        try (Connection conn = DatabaseUtil.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()
+        ) {
+            while (rs.next()) {
+                counts.put(rs.getString(1), rs.getLong(2));
+            }
+        } finally {
+            metrics.recordDb("countByAuthor", System.nanoTime() - dbStart);
+        }
+        return counts;
+    }
+
     private Post extractPostFromResultSet(ResultSet rs) throws SQLException {
         Post post = new Post();
         post.setId(rs.getLong("id"));
@@ -142,6 +520,10 @@ public class PostDao {
         if (timeStamp != null) {
             post.setCreatedAt(timeStamp.toLocalDateTime());
         }
+        Timestamp updatedAt = rs.getTimestamp("updatedAt");
+        post.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : post.getCreatedAt());
+        post.setVersion(rs.getLong("version"));
+        post.setViewCount(rs.getLong("viewCount"));
         return post;
     }
 
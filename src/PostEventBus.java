@@ -0,0 +1,369 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * 게시글 변경 이벤트 버스 + GET /api/posts/stream (Server-Sent Events) 구독자 관리.
+ * - PostDao 가 커밋 후 created/updated/deleted 를 발행하면 SSE 프레임(byte[])으로 한 번만 만들어
+ *   최근 historySize 개를 보관하고 모든 구독자의 링 버퍼(bufferSize)에 넣는다
+ * - 구독 요청의 핸들러는 헤더와 재전송분만 넣고 바로 반환하므로, 유휴 구독자는 스레드를 잡지 않는다.
+ *   실제 쓰기는 버퍼에 프레임이 생긴 구독자만 writer 실행기(RequestExecutor.newBackgroundExecutor)에서 한다
+ * - Last-Event-ID ("epoch-seq") 가 보관 범위 안이면 그 뒤 이벤트를 재전송, 아니면 reset 이벤트 (클라이언트가 목록을 다시 읽음)
+ * - 링 버퍼가 가득 찬 느린 구독자는 연결을 끊는다 (재접속하면 Last-Event-ID 로 이어 받음)
+ * - heartbeatMs 마다 주석 프레임을 넣어 죽은 연결도 버퍼가 차거나 쓰기가 실패하면서 정리된다
+ * - 읽지 않는 클라이언트로의 소켓 쓰기는 HttpServer 에서 끊을 방법 없이 막히므로, writeTimeoutMs 를 넘긴 구독자는
+ *   버스에서 빼 더 이상 프레임을 받지 않게 한다 (막힌 writer 스레드는 쓰기가 끝나거나 실패할 때 연결을 닫고 풀려난다)
+ */
+public class PostEventBus {
+    private static final Logger logger = Logger.getLogger(PostEventBus.class.getName());
+    private static final byte[] HEARTBEAT = ":\n\n".getBytes(StandardCharsets.UTF_8);
+
+    //  Singleton
+    private static final PostEventBus INSTANCE = new PostEventBus(
+            AppConfig.getBoolean("board.sse.enabled", true),
+            AppConfig.getInt("board.sse.historySize", 1_024),
+            AppConfig.getInt("board.sse.bufferSize", 256),
+            AppConfig.getInt("board.sse.maxSubscribers", 10_000),
+            AppConfig.getLong("board.sse.heartbeatMs", 15_000L),
+            AppConfig.getLong("board.sse.writeTimeoutMs", 30_000L),
+            AppConfig.getLong("board.sse.retryMs", 3_000L));
+    public static PostEventBus getInstance() {
+        return INSTANCE;
+    }
+
+    private static final class Event {
+        final long seq;
+        final byte[] frame;
+
+        Event(long seq, byte[] frame) {
+            this.seq = seq;
+            this.frame = frame;
+        }
+    }
+
+    //  구독자 한 명: 고정 크기 링 버퍼와 "쓰기 작업이 예약됐는지" 표시 (모두 this 로 보호)
+    private final class Subscriber {
+        final HttpExchange exchange;
+        final OutputStream out;
+        final byte[][] ring;
+        int head;
+        int size;
+        boolean draining;
+        boolean overflowed;
+        boolean closed;
+        //  지금 진행 중인 쓰기를 시작한 시각 (쓰는 중이 아니면 0)
+        volatile long writingSince;
+
+        Subscriber(HttpExchange exchange, int capacity) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+            this.ring = new byte[capacity][];
+        }
+
+        void offer(byte[] frame) {
+            boolean schedule;
+            synchronized (this) {
+                if (closed || overflowed) { return; }
+                if (size == ring.length) {
+                    overflowed = true;
+                } else {
+                    ring[(head + size) % ring.length] = frame;
+                    size++;
+                }
+                schedule = !draining;
+                draining = true;
+            }
+            if (schedule) {
+                Executor w = writers;
+                try {
+                    if (w == null) { throw new RejectedExecutionException("stopped"); }
+                    w.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    //  publish/subscribe 가 버스 락을 쥔 채 부를 수 있으므로 여기서 소켓에 쓰지(exchange.close) 않는다
+                    if (detach()) {
+                        closeLater(this);
+                    }
+                }
+            }
+        }
+
+        //  버퍼에 쌓인 프레임을 모두 쓰고 flush, 그 사이 새로 들어온 게 없으면 끝낸다
+        void drain() {
+            List<byte[]> batch = new ArrayList<>();
+            try {
+                while (true) {
+                    synchronized (this) {
+                        if (closed) { break; }
+                        if (overflowed) {
+                            slowDisconnects.increment();
+                            break;
+                        }
+                        if (size == 0) {
+                            draining = false;
+                            return;
+                        }
+                        while (size > 0) {
+                            batch.add(ring[head]);
+                            ring[head] = null;
+                            head = (head + 1) % ring.length;
+                            size--;
+                        }
+                    }
+                    writingSince = System.nanoTime();
+                    for (byte[] frame : batch) {
+                        out.write(frame);
+                    }
+                    out.flush();
+                    writingSince = 0;
+                    batch.clear();
+                }
+            } catch (IOException e) {
+                //  클라이언트가 연결을 끊음
+            }
+            writingSince = 0;
+            close();
+        }
+
+        //  이미 닫혔으면 아무것도 하지 않는다 (HttpExchange.close 도 두 번째 호출은 무시)
+        void close() {
+            detach();
+            exchange.close();
+        }
+
+        //  버스에서만 뺀다. 쓰기가 막힌 구독자용: 여기서 exchange.close() 를 부르면 같은 소켓 쓰기에 막힌다
+        boolean detach() {
+            synchronized (this) {
+                if (closed) { return false; }
+                closed = true;
+            }
+            subscribers.remove(this);
+            return true;
+        }
+    }
+
+    private final boolean enabled;
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final long heartbeatMillis;
+    private final long writeTimeoutNanos;
+    private final long retryMillis;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+    //  최근 이벤트 링 (this 로 보호). seq 는 1 부터
+    private final Event[] history;
+    private long lastSeq;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    //  버스에서 뺐지만 아직 exchange 를 닫지 않은 구독자 (heartbeat 스레드가 락 밖에서 닫는다)
+    private final Queue<Subscriber> pendingClose = new ConcurrentLinkedQueue<>();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder resets = new LongAdder();
+    private final LongAdder slowDisconnects = new LongAdder();
+    private final LongAdder stalledWrites = new LongAdder();
+    private volatile Executor writers;
+    private volatile ScheduledExecutorService heartbeat;
+
+    private PostEventBus(boolean enabled, int historySize, int bufferSize, int maxSubscribers,
+                         long heartbeatMillis, long writeTimeoutMillis, long retryMillis) {
+        this.enabled = enabled;
+        this.history = new Event[Math.max(1, historySize)];
+        this.bufferSize = Math.max(1, bufferSize);
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMillis = heartbeatMillis;
+        this.writeTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(writeTimeoutMillis);
+        this.retryMillis = retryMillis;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    /* writers: 구독자에게 프레임을 쓰는 실행기. 시작 전이거나 비활성이면 발행만 기록하고 구독은 받지 않는다 */
+    public synchronized void start(Executor writers) {
+        if (!enabled || heartbeat != null) { return; }
+        this.writers = writers;
+        heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sse-heartbeat");
+            t.setDaemon(true);
+            return t;
+        });
+        heartbeat.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void closeLater(Subscriber subscriber) {
+        pendingClose.add(subscriber);
+        ScheduledExecutorService s = heartbeat;
+        if (s == null) { return; }
+        try {
+            s.execute(this::closePending);
+        } catch (RejectedExecutionException e) {
+            //  종료 중: shutdown() 이 닫는다
+        }
+    }
+
+    private void closePending() {
+        Subscriber s;
+        while ((s = pendingClose.poll()) != null) {
+            try {
+                s.exchange.close();
+            } catch (RuntimeException e) {
+                logger.log(Level.FINE, "SSE 스트림 닫기 실패", e);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        closePending();
+        long now = System.nanoTime();
+        for (Subscriber s : subscribers) {
+            long since = s.writingSince;
+            if (since != 0 && now - since > writeTimeoutNanos) {
+                if (s.detach()) {
+                    stalledWrites.increment();
+                }
+            } else {
+                s.offer(HEARTBEAT);
+            }
+        }
+    }
+
+    // ---- 발행 (PostDao 가 커밋 후 호출) ----
+
+    public void publishCreated(Post post) {
+        publish("created", gson.toJson(post));
+    }
+
+    public void publishUpdated(Post post) {
+        publish("updated", gson.toJson(post));
+    }
+
+    public void publishDeleted(long id) {
+        JsonObject data = new JsonObject();
+        data.addProperty("id", id);
+        publish("deleted", gson.toJson(data));
+    }
+
+    //  seq 부여, 보관, 구독자 전달을 한 락 안에서 해 모든 구독자가 같은 순서로 받고 재전송과 겹치지 않게 한다
+    //  (구독자 전달은 링 버퍼에 넣기만 하고 소켓에는 쓰지 않으므로 락 구간은 짧다)
+    private void publish(String type, String json) {
+        if (!enabled) { return; }
+        synchronized (this) {
+            long seq = ++lastSeq;
+            Event event = new Event(seq, frame(seq, type, json));
+            history[(int) (seq % history.length)] = event;
+            for (Subscriber s : subscribers) {
+                s.offer(event.frame);
+            }
+        }
+        published.increment();
+    }
+
+    private byte[] frame(long seq, String type, String json) {
+        String text = "id: " + epoch + "-" + seq + "\nevent: " + type + "\ndata: " + json + "\n\n";
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // ---- 구독 ----
+
+    /* 스트림을 열고 바로 반환. 받을 수 없으면(비활성/상한 초과) false - 호출 측이 503 으로 응답 */
+    public boolean subscribe(HttpExchange exchange, String lastEventId) throws IOException {
+        if (writers == null || subscribers.size() >= maxSubscribers) { return false; }
+
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=UTF-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.getResponseHeaders().set("X-Accel-Buffering", "no");
+        exchange.sendResponseHeaders(200, 0);
+
+        Subscriber subscriber = new Subscriber(exchange, bufferSize);
+        subscriber.offer(("retry: " + retryMillis + "\n\n").getBytes(StandardCharsets.UTF_8));
+        synchronized (this) {
+            for (byte[] frame : replay(lastEventId)) {
+                subscriber.offer(frame);
+            }
+            subscribers.add(subscriber);
+        }
+        return true;
+    }
+
+    //  lastEventId 뒤의 보관된 이벤트. 이어 받을 수 없으면 reset 하나 (처음 구독이면 없음)
+    private List<byte[]> replay(String lastEventId) {
+        List<byte[]> frames = new ArrayList<>();
+        if (lastEventId == null || lastEventId.isEmpty()) { return frames; }
+        long from = parseSeq(lastEventId);
+        long oldest = Math.max(1, lastSeq - history.length + 1);
+        //  재전송분이 링 버퍼보다 크면 어차피 느린 구독자로 끊기므로 reset 으로 대신한다
+        if (from < 0 || from > lastSeq || from + 1 < oldest || lastSeq - from >= bufferSize) {
+            resets.increment();
+            frames.add(frame(lastSeq, "reset", "{}"));
+            return frames;
+        }
+        for (long seq = from + 1; seq <= lastSeq; seq++) {
+            frames.add(history[(int) (seq % history.length)].frame);
+        }
+        replayed.add(frames.size());
+        return frames;
+    }
+
+    //  "epoch-seq" 에서 seq, 다른 기동(epoch)의 id 거나 형식이 틀리면 -1
+    private long parseSeq(String lastEventId) {
+        if (!lastEventId.startsWith(epoch + "-")) { return -1; }
+        try {
+            return Long.parseLong(lastEventId.substring(epoch.length() + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    //  종료 시 모든 스트림을 닫는다 (HttpServer.stop 이 열린 교환을 기다리지 않도록 먼저 호출)
+    public void shutdown() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = heartbeat;
+            heartbeat = null;
+            writers = null;
+        }
+        if (s != null) {
+            s.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            try {
+                //  쓰기가 막혀 있는 구독자는 닫으려다 같이 막히므로 버스에서만 뺀다
+                if (subscriber.writingSince != 0) {
+                    subscriber.detach();
+                } else {
+                    subscriber.close();
+                }
+            } catch (RuntimeException e) {
+                logger.log(Level.FINE, "SSE 스트림 닫기 실패", e);
+            }
+        }
+        closePending();
+    }
+
+    public int getSubscriberCount() { return subscribers.size(); }
+    public long getPublishedCount() { return published.sum(); }
+    public long getReplayedCount() { return replayed.sum(); }
+    public long getResetCount() { return resets.sum(); }
+    public long getSlowDisconnectCount() { return slowDisconnects.sum(); }
+    public long getStalledWriteCount() { return stalledWrites.sum(); }
+}
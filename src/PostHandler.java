@@ -1,14 +1,23 @@
 import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.google.gson.stream.MalformedJsonException;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Logger;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
@@ -18,17 +27,53 @@ public class PostHandler implements HttpHandler {
 
     private static final Logger logger = Logger.getLogger(PostHandler.class.getName());
     private final PostDao postDao = new PostDao();
+    private final PostSearchIndex searchIndex = PostSearchIndex.getInstance();
+    private final BoardRevision revision = BoardRevision.getInstance();
+    private final ViewCounter viewCounter = ViewCounter.getInstance();
+    private final GroupCommitWriter groupCommit = GroupCommitWriter.getInstance();
+    private final AuthorPostCounts authorCounts = AuthorPostCounts.getInstance();
+    private final PostEventBus events = PostEventBus.getInstance();
     private final Gson gson;
+    private final Gson listGson;
+    private final AttachmentHandler attachments;
 
     // URL 패턴 정의
     private static final Pattern GET_BY_ID_PATTERN = Pattern.compile("^/api/posts/(\\d+)$");
     private static final Pattern BASE_PATH_PATTERN = Pattern.compile("^/api/posts/?$");
+    private static final Pattern BATCH_PATH_PATTERN = Pattern.compile("^/api/posts/batch/?$");
+    private static final Pattern SEARCH_PATH_PATTERN = Pattern.compile("^/api/posts/search/?$");
+    private static final Pattern STREAM_PATH_PATTERN = Pattern.compile("^/api/posts/stream/?$");
+    private static final Pattern ATTACHMENTS_PATH_PATTERN = Pattern.compile("^/api/posts/(\\d+)/attachments/?$");
+    private static final Pattern ATTACHMENT_PATH_PATTERN = Pattern.compile("^/api/posts/(\\d+)/attachments/([^/]+)$");
+
+    // 목록 페이지 크기
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // 대량 등록 제한과 executeBatch 묶음 크기
+    private static final int MAX_BATCH_ITEMS = AppConfig.getInt("board.batch.maxItems", 10_000);
+    private static final int BATCH_CHUNK_SIZE = AppConfig.getInt("board.batch.chunkSize", 500);
 
     public PostHandler() {
         this.gson = new GsonBuilder()
                 .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
-                .setPrettyPrinting()
                 .create();
+        //  목록 항목에는 조회수를 넣지 않는다. 목록의 ETag/캐시(첫 페이지, 스냅샷)는 게시판 리비전으로만
+        //  정해지는데 조회수 반영은 리비전을 올리지 않으므로, 넣으면 304 와 캐시된 페이지의 값이 낡는다
+        this.listGson = gson.newBuilder()
+                .addSerializationExclusionStrategy(new ExclusionStrategy() {
+                    @Override
+                    public boolean shouldSkipField(FieldAttributes f) {
+                        return f.getDeclaringClass() == Post.class && f.getName().equals("viewCount");
+                    }
+
+                    @Override
+                    public boolean shouldSkipClass(Class<?> clazz) {
+                        return false;
+                    }
+                })
+                .create();
+        this.attachments = new AttachmentHandler(postDao, gson);
     }
 
     @Override
@@ -62,6 +107,9 @@ public class PostHandler implements HttpHandler {
                 default:
                     sendResponse(exchange, 405, createErrorResponse("Method not allowed"));
             }
+        } catch (StreamAbortedException e) {
+            //  200 헤더를 이미 보냈으므로 오류 응답 대신 서버가 연결을 끊게 둔다
+            throw e;
         } catch (Exception e) {
             logger.log(Level.SEVERE, "Unexpected error", e);
             sendResponse(exchange, 500, createErrorResponse("Internal server error"));
@@ -71,21 +119,54 @@ public class PostHandler implements HttpHandler {
     private void handleGet(HttpExchange exchange, String path) throws IOException {
         try {
             Matcher matcher = GET_BY_ID_PATTERN.matcher(path);
+            Matcher attachment = ATTACHMENT_PATH_PATTERN.matcher(path);
+            Matcher attachmentList = ATTACHMENTS_PATH_PATTERN.matcher(path);
 
             if (matcher.matches()) {
-                // GET /posts/{id} - 단일 조회
-                Long id = Long.parseLong(matcher.group(1));
-                Post post = postDao.findById(id);
-
-                if (post != null) {
-                    sendResponse(exchange, 200, gson.toJson(post));
+                // GET /posts/{id} - 단일 조회 (ETag/If-Modified-Since 조건부)
+                handleGetById(exchange, Long.parseLong(matcher.group(1)));
+            } else if (attachment.matches()) {
+                // GET /posts/{id}/attachments/{name} - 첨부파일 내용 (Range, ETag = SHA-256)
+                attachments.handleDownload(exchange, Long.parseLong(attachment.group(1)), attachment.group(2));
+            } else if (attachmentList.matches()) {
+                // GET /posts/{id}/attachments - 첨부파일 목록
+                attachments.handleList(exchange, Long.parseLong(attachmentList.group(1)));
+            } else if (STREAM_PATH_PATTERN.matcher(path).matches()) {
+                // GET /posts/stream - 새 글/수정/삭제 SSE (Last-Event-ID 로 이어 받기)
+                handleStream(exchange);
+            } else if (SEARCH_PATH_PATTERN.matcher(path).matches()) {
+                // GET /posts/search?q=...&limit=N - 역색인 검색 (점수 순)
+                handleSearch(exchange);
+            } else if (BASE_PATH_PATTERN.matcher(path).matches()) {
+                // GET /posts?limit=N&cursor=... - 키셋 페이지 조회
+                // GET /posts?author=...&limit=N&cursor=... - 작성자 피드 (같은 커서 형식, total = 작성자 글 수)
+                Map<String, String> query = HttpUtil.parseQuery(exchange.getRequestURI().getRawQuery());
+                int limit;
+                PostCursor cursor;
+                try {
+                    limit = parseLimit(query.get("limit"));
+                    String cursorParam = query.get("cursor");
+                    cursor = (cursorParam == null || cursorParam.isEmpty()) ? null : PostCursor.decode(cursorParam);
+                } catch (IllegalArgumentException e) {
+                    sendResponse(exchange, 400, createErrorResponse("Invalid limit or cursor"));
+                    return;
+                }
+                // 목록 내용은 게시판 리비전으로만 정해지므로, 리비전이 그대로면 DB 없이 304
+                String tag = revision.tag();
+                long lastModified = revision.lastModifiedMillis();
+                List<String> tags = ConditionalGet.ifNoneMatch(exchange);
+                if ((tags != null && (tags.contains(tag) || tags.contains("*")))
+                        || ConditionalGet.notModifiedSince(exchange, lastModified)) {
+                    ConditionalGet.sendNotModified(exchange, tag, lastModified);
+                    return;
+                }
+                ConditionalGet.setValidators(exchange, tag, lastModified);
+                String author = query.get("author");
+                if (author != null && !author.isEmpty()) {
+                    sendAuthorPageStreaming(exchange, author, cursor, limit);
                 } else {
-                    sendResponse(exchange, 404, createErrorResponse("Post not found"));
+                    sendPageStreaming(exchange, cursor, limit);
                 }
-            } else if (BASE_PATH_PATTERN.matcher(path).matches()) {
-                // GET /posts - 전체 조회
-                List<Post> posts = postDao.findAll();
-                sendResponse(exchange, 200, gson.toJson(posts));
             } else {
                 sendResponse(exchange, 404, createErrorResponse("Invalid path"));
             }
@@ -97,7 +178,137 @@ public class PostHandler implements HttpHandler {
         }
     }
 
+    /*
+     * 단건 ETag 는 "id.version@리비전".
+     * - 클라이언트 태그의 리비전이 현재와 같으면 그 뒤로 어떤 글도 바뀌지 않았으므로 DB 없이 304
+     * - 리비전이 달라도 글의 id.version 이 같으면 (캐시 또는 DB 로 확인 후) 새 태그로 304
+     * - If-Modified-Since 만 온 경우, 그 시각 이후 게시판에 쓰기가 없었으면 DB 없이 304
+     */
+    private void handleGetById(HttpExchange exchange, Long id) throws IOException, SQLException {
+        //  조회수가 바뀌어도 태그는 그대로이므로 조회수를 합칠 때는 약한 ETag
+        boolean weakTags = viewCounter.isEnabled();
+        String boardTag = revision.tag();
+        List<String> tags = ConditionalGet.ifNoneMatch(exchange);
+        if (tags != null) {
+            for (String t : tags) {
+                if (t.startsWith(id + ".") && t.endsWith("@" + boardTag)) {
+                    ConditionalGet.sendNotModified(exchange, t, 0, weakTags);
+                    return;
+                }
+            }
+        } else if (ConditionalGet.notModifiedSince(exchange, revision.lastModifiedMillis())) {
+            ConditionalGet.sendNotModified(exchange, null, revision.lastModifiedMillis());
+            return;
+        }
+
+        Post post = postDao.findById(id);
+        if (post == null) {
+            sendResponse(exchange, 404, createErrorResponse("Post not found"));
+            return;
+        }
+
+        String versionTag = post.getId() + "." + post.getVersion();
+        String tag = versionTag + "@" + boardTag;
+        long lastModified = post.getUpdatedAt() == null ? 0
+                : post.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean notModified;
+        if (tags != null) {
+            notModified = tags.contains("*");
+            for (String t : tags) {
+                notModified |= t.startsWith(versionTag + "@");
+            }
+        } else {
+            notModified = lastModified > 0 && ConditionalGet.notModifiedSince(exchange, lastModified);
+        }
+        if (notModified) {
+            ConditionalGet.sendNotModified(exchange, tag, lastModified, weakTags);
+            return;
+        }
+        ConditionalGet.setValidators(exchange, tag, lastModified, weakTags);
+
+        //  조회수: 304 가 아닌 본문 응답만 조회로 센다. 캐시된 Post 는 공유되므로 복사본에 합친다
+        Post body = post;
+        if (viewCounter.isEnabled()) {
+            body = post.copy();
+            body.setViewCount(viewCounter.recordView(post));
+        }
+        sendResponse(exchange, 200, gson.toJson(body));
+    }
+
+    //  스트림을 등록만 하고 바로 반환한다 (이 요청 스레드는 구독 중에 붙잡히지 않음)
+    private void handleStream(HttpExchange exchange) throws IOException {
+        if (!events.isEnabled()) {
+            sendResponse(exchange, 404, createErrorResponse("Event stream is disabled"));
+            return;
+        }
+        if (!events.subscribe(exchange, exchange.getRequestHeaders().getFirst("Last-Event-ID"))) {
+            exchange.getResponseHeaders().set("Retry-After", "5");
+            sendResponse(exchange, 503, createErrorResponse("Too many subscribers"));
+        }
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException, SQLException {
+        if (!searchIndex.isEnabled()) {
+            sendResponse(exchange, 404, createErrorResponse("Search is disabled"));
+            return;
+        }
+        Map<String, String> query = HttpUtil.parseQuery(exchange.getRequestURI().getRawQuery());
+        String q = query.get("q");
+        if (q == null || q.trim().isEmpty()) {
+            sendResponse(exchange, 400, createErrorResponse("Query parameter 'q' is required"));
+            return;
+        }
+        int limit;
+        try {
+            limit = parseLimit(query.get("limit"));
+        } catch (NumberFormatException e) {
+            sendResponse(exchange, 400, createErrorResponse("Invalid limit"));
+            return;
+        }
+
+        //  헤더를 보내기 전에 조회를 끝낸다 (DB 오류는 평소처럼 500, 히트 수와 상관없이 쿼리 한 번)
+        List<PostSearchIndex.Hit> hits = searchIndex.search(q, limit);
+        List<Long> ids = new ArrayList<>(hits.size());
+        for (PostSearchIndex.Hit hit : hits) {
+            ids.add(hit.postId);
+        }
+        Map<Long, Post> posts = postDao.findByIds(ids);
+
+        PageStreamWriter writer = new PageStreamWriter(exchange);
+        try {
+            for (Long id : ids) {
+                Post post = posts.get(id);
+                if (post != null) {
+                    writer.accept(post);
+                }
+            }
+            writer.finish(null);
+        } catch (IOException | JsonIOException e) {
+            if (!writer.started) {
+                throw e;
+            }
+            logger.log(Level.SEVERE, "Error while streaming search results", e);
+            throw new StreamAbortedException(e);
+        }
+    }
+
+    private int parseLimit(String value) {
+        if (value == null || value.isEmpty()) { return DEFAULT_PAGE_SIZE; }
+        int limit = Integer.parseInt(value);
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
     private void handlePost(HttpExchange exchange, String path) throws IOException {
+        if (BATCH_PATH_PATTERN.matcher(path).matches()) {
+            handleBatchPost(exchange);
+            return;
+        }
+        Matcher attachment = ATTACHMENT_PATH_PATTERN.matcher(path);
+        if (attachment.matches()) {
+            // POST /posts/{id}/attachments/{name} - 본문(raw)을 첨부파일로 저장
+            handleAttachmentWrite(exchange, attachment, true);
+            return;
+        }
         if (!BASE_PATH_PATTERN.matcher(path).matches()) {
             sendResponse(exchange, 404, createErrorResponse("Invalid path"));
             return;
@@ -115,8 +326,8 @@ public class PostHandler implements HttpHandler {
                 return;
             }
 
-            // 저장
-            Post createdPost = postDao.save(post);
+            // 저장 (그룹 커밋 모드면 작성 스레드가 다른 요청의 글과 함께 커밋할 때까지 기다린다)
+            Post createdPost = groupCommit.isEnabled() ? groupCommit.save(post) : postDao.save(post);
 
             // 응답
             String jsonResponse = gson.toJson(createdPost);
@@ -128,6 +339,51 @@ public class PostHandler implements HttpHandler {
         } catch (SQLException e) {
             logger.log(Level.SEVERE, "Database error during POST", e);
             sendResponse(exchange, 500, createErrorResponse("Database error: " + e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            // 저장되지 않은 것이 확실하므로 다시 보내도 된다
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            sendResponse(exchange, 503, createErrorResponse("Server busy"));
+        } catch (TimeoutException e) {
+            // 이미 커밋 중이라 저장됐을 수 있다. 재시도하면 글이 중복되므로 Retry-After 없이 504
+            sendResponse(exchange, 504, createErrorResponse("Post may have been saved, check before retrying"));
+        }
+    }
+
+    // POST /posts/batch - [{...}, {...}] 배열을 요소 단위로 읽어 검증 후 한 트랜잭션으로 등록
+    private void handleBatchPost(HttpExchange exchange) throws IOException {
+        List<Post> posts = new ArrayList<>();
+
+        try (JsonReader reader = new JsonReader(new InputStreamReader(
+                exchange.getRequestBody(), StandardCharsets.UTF_8))) {
+
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (posts.size() == MAX_BATCH_ITEMS) {
+                    sendResponse(exchange, 413, createErrorResponse("Too many posts (max " + MAX_BATCH_ITEMS + ")"));
+                    return;
+                }
+                Post post = gson.fromJson(reader, Post.class);
+                if (!isValidPost(post)) {
+                    sendResponse(exchange, 400, createErrorResponse("Invalid post data at index " + posts.size()));
+                    return;
+                }
+                posts.add(post);
+            }
+            reader.endArray();
+
+            List<Long> ids = postDao.saveAll(posts, BATCH_CHUNK_SIZE);
+
+            JsonObject result = new JsonObject();
+            result.addProperty("count", ids.size());
+            result.add("ids", gson.toJsonTree(ids));
+            sendResponse(exchange, 201, gson.toJson(result));
+
+        } catch (JsonSyntaxException | IllegalStateException | MalformedJsonException e) {
+            logger.log(Level.WARNING, "Invalid JSON in batch request", e);
+            sendResponse(exchange, 400, createErrorResponse("Invalid JSON format: " + e.getMessage()));
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Database error during batch POST", e);
+            sendResponse(exchange, 500, createErrorResponse("Database error: " + e.getMessage()));
         }
     }
 
@@ -153,20 +409,13 @@ public class PostHandler implements HttpHandler {
                 return;
             }
 
-            // 존재 여부 확인
-            Post existingPost = postDao.findById(id);
-            if (existingPost == null) {
+            // UPDATE 한 번으로 존재 확인 + 수정 + 결과 조회
+            Post updatedPost = postDao.update(post);
+            if (updatedPost == null) {
                 sendResponse(exchange, 404, createErrorResponse("Post not found"));
                 return;
             }
-
-            boolean updated = postDao.update(post);
-            if (updated) {
-                Post updatedPost = postDao.findById(id);
-                sendResponse(exchange, 200, gson.toJson(updatedPost));
-            } else {
-                sendResponse(exchange, 500, createErrorResponse("Update failed"));
-            }
+            sendResponse(exchange, 200, gson.toJson(updatedPost));
 
         } catch (JsonSyntaxException e) {
             sendResponse(exchange, 400, createErrorResponse("Invalid JSON format"));
@@ -179,6 +428,11 @@ public class PostHandler implements HttpHandler {
     }
 
     private void handleDelete(HttpExchange exchange, String path) throws IOException {
+        Matcher attachment = ATTACHMENT_PATH_PATTERN.matcher(path);
+        if (attachment.matches()) {
+            handleAttachmentWrite(exchange, attachment, false);
+            return;
+        }
         Matcher matcher = GET_BY_ID_PATTERN.matcher(path);
 
         if (!matcher.matches()) {
@@ -189,18 +443,12 @@ public class PostHandler implements HttpHandler {
         try {
             Long id = Long.parseLong(matcher.group(1));
 
-            // 존재 여부 확인
-            Post existingPost = postDao.findById(id);
-            if (existingPost == null) {
-                sendResponse(exchange, 404, createErrorResponse("Post not found"));
-                return;
-            }
-
+            // 삭제된 행 수로 존재 여부 판단
             boolean deleted = postDao.delete(id);
             if (deleted) {
                 sendResponse(exchange, 204, ""); // No Content
             } else {
-                sendResponse(exchange, 500, createErrorResponse("Delete failed"));
+                sendResponse(exchange, 404, createErrorResponse("Post not found"));
             }
 
         } catch (SQLException e) {
@@ -211,6 +459,23 @@ public class PostHandler implements HttpHandler {
         }
     }
 
+    //  첨부파일 업로드(upload)와 삭제
+    private void handleAttachmentWrite(HttpExchange exchange, Matcher attachment, boolean upload) throws IOException {
+        try {
+            long postId = Long.parseLong(attachment.group(1));
+            if (upload) {
+                attachments.handleUpload(exchange, postId, attachment.group(2));
+            } else {
+                attachments.handleDelete(exchange, postId, attachment.group(2));
+            }
+        } catch (SQLException e) {
+            logger.log(Level.SEVERE, "Database error during attachment " + (upload ? "upload" : "delete"), e);
+            sendResponse(exchange, 500, createErrorResponse("Database error: " + e.getMessage()));
+        } catch (NumberFormatException e) {
+            sendResponse(exchange, 400, createErrorResponse("Invalid ID format"));
+        }
+    }
+
     private void setCorsHeaders(HttpExchange exchange) {
         exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*");
         exchange.getResponseHeaders().add("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
@@ -230,6 +495,105 @@ public class PostHandler implements HttpHandler {
         }
     }
 
+    //  목록 응답을 문자열/바이트 배열로 만들지 않고 읽은 페이지를 글 단위로 청크 전송한다 (DB 커넥션은 쓰기 전에 반납).
+    //  헤더는 첫 행(또는 빈 결과)에서 보내므로, 그 전에 난 DB 오류는 평소처럼 500 으로 응답된다.
+    //  그 뒤의 오류는 StreamAbortedException 으로 연결을 끊는다.
+    private void sendPageStreaming(HttpExchange exchange, PostCursor cursor, int limit)
+            throws IOException, SQLException {
+        PageStreamWriter writer = new PageStreamWriter(exchange);
+        try {
+            if (cursor == null) {
+                // 첫 페이지는 캐시된 결과(최대 MAX_PAGE_SIZE 개)를 쓴다
+                PostPage page = postDao.findPage(null, limit);
+                for (Post post : page.getPosts()) {
+                    writer.accept(post);
+                }
+                writer.finish(page.getNextCursor());
+            } else {
+                String nextCursor = postDao.streamPage(cursor, limit, writer);
+                writer.finish(nextCursor);
+            }
+        } catch (SQLException | IOException | JsonIOException e) {
+            if (!writer.started) {
+                throw e;
+            }
+            logger.log(Level.SEVERE, "Error while streaming post page", e);
+            throw new StreamAbortedException(e);
+        }
+    }
+
+    private void sendAuthorPageStreaming(HttpExchange exchange, String author, PostCursor cursor, int limit)
+            throws IOException, SQLException {
+        PageStreamWriter writer = new PageStreamWriter(exchange);
+        try {
+            String nextCursor = postDao.streamAuthorPage(author, cursor, limit, writer);
+            writer.finish(nextCursor, authorCounts.get(author));
+        } catch (SQLException | IOException | JsonIOException e) {
+            if (!writer.started) {
+                throw e;
+            }
+            logger.log(Level.SEVERE, "Error while streaming author page", e);
+            throw new StreamAbortedException(e);
+        }
+    }
+
+    /*
+     * 청크 응답 도중 오류. exchange.close() 는 마지막 청크(와 gzip 트레일러)를 써서 잘린 본문이
+     * 정상 응답처럼 끝나므로, 대신 이 예외를 핸들러/필터 밖으로 던져 HttpServer 가 마지막 청크 없이
+     * 연결을 끊게 한다 (클라이언트는 불완전한 응답으로 인식).
+     */
+    static class StreamAbortedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        StreamAbortedException(Throwable cause) {
+            super("response aborted after headers were sent", cause);
+        }
+    }
+
+    private class PageStreamWriter implements PostDao.PostConsumer {
+        private final HttpExchange exchange;
+        private JsonWriter json;
+        private boolean started;
+
+        PageStreamWriter(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        @Override
+        public void accept(Post post) throws IOException {
+            start();
+            listGson.toJson(post, Post.class, json);
+        }
+
+        void finish(String nextCursor) throws IOException {
+            finish(nextCursor, null);
+        }
+
+        void finish(String nextCursor, Long total) throws IOException {
+            start();
+            json.endArray();
+            if (nextCursor != null) {
+                json.name("nextCursor").value(nextCursor);
+            }
+            if (total != null) {
+                json.name("total").value(total);
+            }
+            json.endObject();
+            json.close();
+        }
+
+        private void start() throws IOException {
+            if (started) { return; }
+            started = true;
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(200, 0);
+            json = new JsonWriter(new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+            json.beginObject();
+            json.name("posts");
+            json.beginArray();
+        }
+    }
+
     private String createErrorResponse(String message) {
         JsonObject error = new JsonObject();
         error.addProperty("error", message);
@@ -0,0 +1,15 @@
+import java.util.List;
+
+//  목록 응답 한 페이지: 게시글들과 다음 페이지 커서 (마지막 페이지면 null)
+public class PostPage {
+    private final List<Post> posts;
+    private final String nextCursor;
+
+    public PostPage(List<Post> posts, String nextCursor) {
+        this.posts = posts;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Post> getPosts() { return posts; }
+    public String getNextCursor() { return nextCursor; }
+}
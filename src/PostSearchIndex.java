@@ -0,0 +1,223 @@
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ * 게시글 제목/본문/작성자에 대한 메모리 역색인.
+ * - 토큰화: 소문자화 후 글자/숫자 단위로 단어를 나누고, 한글·한자·가나가 섞인 단어는 글자 2-gram 으로 쪼갠다
+ *   (형태소 분석 없이 "데이터베이스" 로 "베이스" 를 찾을 수 있도록)
+ * - 필드 가중치: 제목 3, 작성자 2, 본문 1
+ * - 질의의 모든 토큰을 포함한 글만 후보로 삼고 tf-idf 합으로 상위 k 개를 고른다
+ * - PostDao 의 save/update/delete 에서 증분 반영, 시작 시 rebuild() 로 H2 에서 다시 만든다
+ */
+public class PostSearchIndex {
+    //  Singleton
+    private static final PostSearchIndex INSTANCE = new PostSearchIndex(
+            AppConfig.getBoolean("board.search.enabled", true));
+    public static PostSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+
+    public static class Hit {
+        public final long postId;
+        public final double score;
+
+        public Hit(long postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+    }
+
+    private final boolean enabled;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    //  term -> (postId -> 가중 빈도)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    //  postId -> 그 글의 term 들 (수정/삭제 시 postings 에서 빼기 위함)
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+
+    private PostSearchIndex(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public void rebuild(PostDao postDao) throws SQLException {
+        if (!enabled) { return; }
+        Map<Long, Map<String, Integer>> docs = new HashMap<>();
+        postDao.scanAll(post -> docs.put(post.getId(), termsOf(post)));
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            for (Map.Entry<Long, Map<String, Integer>> e : docs.entrySet()) {
+                addLocked(e.getKey(), e.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //  새 글 추가 또는 기존 글 교체
+    public void index(Post post) {
+        if (!enabled || post == null || post.getId() == null) { return; }
+        Map<String, Integer> terms = termsOf(post);
+        lock.writeLock().lock();
+        try {
+            removeLocked(post.getId());
+            addLocked(post.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        if (!enabled) { return; }
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Hit> search(String query, int k) {
+        if (!enabled || query == null || k <= 0) { return Collections.emptyList(); }
+        List<String> queryTerms = new ArrayList<>(tokenize(query).keySet());
+        if (queryTerms.isEmpty()) { return Collections.emptyList(); }
+
+        lock.readLock().lock();
+        try {
+            int n = documents.size();
+            List<Map<Long, Integer>> lists = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                Map<Long, Integer> list = postings.get(term);
+                if (list == null) { return Collections.emptyList(); }
+                lists.add(list);
+            }
+            //  가장 짧은 포스팅 리스트를 기준으로 교집합
+            lists.sort((a, b) -> Integer.compare(a.size(), b.size()));
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(k, (a, b) -> Double.compare(a.score, b.score));
+            for (Long postId : lists.get(0).keySet()) {
+                double score = 0;
+                boolean all = true;
+                for (Map<Long, Integer> list : lists) {
+                    Integer tf = list.get(postId);
+                    if (tf == null) {
+                        all = false;
+                        break;
+                    }
+                    double idf = Math.log(1.0 + (double) n / list.size());
+                    score += (1.0 + Math.log(tf)) * idf;
+                }
+                if (!all) continue;
+                if (top.size() < k) {
+                    top.add(new Hit(postId, score));
+                } else if (score > top.peek().score) {
+                    top.poll();
+                    top.add(new Hit(postId, score));
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort((a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Long.compare(b.postId, a.postId));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addLocked(Long postId, Map<String, Integer> terms) {
+        documents.put(postId, terms);
+        for (Map.Entry<String, Integer> e : terms.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), t -> new HashMap<>()).put(postId, e.getValue());
+        }
+    }
+
+    private void removeLocked(Long postId) {
+        Map<String, Integer> old = documents.remove(postId);
+        if (old == null) { return; }
+        for (String term : old.keySet()) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(postId);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static Map<String, Integer> termsOf(Post post) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, post.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, post.getAuthor(), AUTHOR_WEIGHT);
+        addTerms(terms, post.getContent(), CONTENT_WEIGHT);
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (Map.Entry<String, Integer> e : tokenize(text).entrySet()) {
+            terms.merge(e.getKey(), e.getValue() * weight, Integer::sum);
+        }
+    }
+
+    //  토큰 -> 등장 횟수
+    static Map<String, Integer> tokenize(String text) {
+        Map<String, Integer> tokens = new HashMap<>();
+        if (text == null) { return tokens; }
+
+        String lower = text.toLowerCase();
+        int len = lower.length();
+        int i = 0;
+        while (i < len) {
+            while (i < len && !Character.isLetterOrDigit(lower.charAt(i))) { i++; }
+            int start = i;
+            boolean cjk = false;
+            while (i < len && Character.isLetterOrDigit(lower.charAt(i))) {
+                cjk |= isCjk(lower.charAt(i));
+                i++;
+            }
+            if (start == i) break;
+
+            if (!cjk) {
+                tokens.merge(lower.substring(start, i), 1, Integer::sum);
+            } else if (i - start == 1) {
+                tokens.merge(lower.substring(start, i), 1, Integer::sum);
+            } else {
+                for (int j = start; j + 2 <= i; j++) {
+                    tokens.merge(lower.substring(j, j + 2), 1, Integer::sum);
+                }
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HANGUL
+                || script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA;
+    }
+}
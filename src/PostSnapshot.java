@@ -0,0 +1,217 @@
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 목록 조회용 메모리 스냅샷 (board.posts.snapshot.enabled=true 일 때만).
+ * 게시글을 (createdAt DESC, id DESC) 순서의 영속(persistent) 트립(treap)으로 들고 있다.
+ * - 읽기: volatile 루트 하나를 읽고 그 버전만 훑으므로 락이 없고, 쓰기와 겹쳐도 일관된 한 버전을 본다
+ * - 쓰기: PostDao 가 커밋한 뒤 put/remove 로 새 버전을 만든다. 바뀐 경로의 노드만 새로 만들고
+ *   나머지 서브트리는 이전 버전과 공유 (쓰기당 O(log n) 노드), 쓰기끼리는 synchronized 로 순서를 정한다
+ * - 시작 시 rebuild() 로 H2 에서 다시 만들며, 준비되기 전에는 PostDao 가 DB 로 조회한다
+ * 노드의 Post 는 넣을 때 복사한 것으로, 이후 바꾸지 않는다.
+ * put/remove 는 커밋 뒤에 불리므로 커밋 순서와 다르게 도착할 수 있다 (수정 커밋 -> 같은 글 삭제 커밋 ->
+ * 수정 스레드의 put). 그래서 글마다 반영한 version 과 삭제된 id(묘비)를 들고, 더 새 version 이 아니거나
+ * 이미 삭제된 글의 put 은 버린다. id 는 다시 쓰이지 않으므로 묘비는 지우지 않는다.
+ * 노드의 viewCount 는 마지막 등록/수정(또는 시작) 시점 값이라 목록 응답에는 넣지 않는다 (PostHandler).
+ */
+public class PostSnapshot {
+    //  INSTANCE 생성자가 current 초기값으로 쓰므로 먼저 초기화
+    private static final Version EMPTY = new Version(null, 0);
+
+    //  Singleton
+    private static final PostSnapshot INSTANCE = new PostSnapshot(
+            AppConfig.getBoolean("board.posts.snapshot.enabled", false));
+    public static PostSnapshot getInstance() {
+        return INSTANCE;
+    }
+
+    private static final class Node {
+        final Post post;
+        final long priority;
+        final Node left;
+        final Node right;
+
+        Node(Post post, long priority, Node left, Node right) {
+            this.post = post;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+        }
+
+        Node with(Node left, Node right) {
+            return new Node(post, priority, left, right);
+        }
+    }
+
+    //  한 버전: 루트와 글 수를 같이 바꾼다
+    private static final class Version {
+        final Node root;
+        final int size;
+
+        Version(Node root, int size) {
+            this.root = root;
+            this.size = size;
+        }
+    }
+
+    private final boolean enabled;
+    private volatile Version current = EMPTY;
+    //  id -> 스냅샷에 반영된 version, 삭제된 id (둘 다 synchronized(this) 안에서만)
+    private final Map<Long, Long> versions = new HashMap<>();
+    private final Set<Long> tombstones = new HashSet<>();
+    private volatile boolean ready;
+    private final LongAdder published = new LongAdder();
+
+    private PostSnapshot(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    //  rebuild() 가 끝난 뒤부터 목록 조회에 쓴다
+    public boolean isReady() { return ready; }
+
+    public int size() { return current.size; }
+    public long getVersionCount() { return published.sum(); }
+
+    /* H2 의 전체 게시글로 다시 만든다 (서버 시작 전에 호출, 이 동안의 쓰기는 반영되지 않음) */
+    public void rebuild(PostDao postDao) throws SQLException {
+        if (!enabled) { return; }
+        Version[] building = {EMPTY};
+        Map<Long, Long> scanned = new HashMap<>();
+        postDao.scanAll(post -> {
+            building[0] = insert(building[0], post.copy());
+            scanned.put(post.getId(), post.getVersion());
+        });
+        synchronized (this) {
+            current = building[0];
+            versions.clear();
+            versions.putAll(scanned);
+            published.increment();
+        }
+        ready = true;
+    }
+
+    //  등록/수정: 같은 (createdAt, id) 가 있으면 바꾸고 없으면 넣는다
+    //  이미 반영한 것보다 새 version 이 아니거나 삭제된 글이면 (늦게 도착한 put) 무시
+    public void put(Post post) {
+        if (!enabled || post == null || post.getId() == null || post.getCreatedAt() == null) { return; }
+        Post copy = post.copy();
+        synchronized (this) {
+            Long known = versions.get(copy.getId());
+            if (tombstones.contains(copy.getId()) || (known != null && copy.getVersion() <= known)) {
+                return;
+            }
+            current = insert(current, copy);
+            versions.put(copy.getId(), copy.getVersion());
+            published.increment();
+        }
+    }
+
+    public void remove(long id, LocalDateTime createdAt) {
+        if (!enabled || createdAt == null) { return; }
+        synchronized (this) {
+            tombstones.add(id);
+            versions.remove(id);
+            Version v = current;
+            Node[] parts = split(v.root, createdAt, id);
+            Node[] rest = splitAfter(parts[1], createdAt, id);
+            if (rest[0] != null) {
+                current = new Version(merge(parts[0], rest[1]), v.size - 1);
+                published.increment();
+            }
+        }
+    }
+
+    /* cursor 다음부터 limit 개를 consumer 로 넘기고 다음 페이지 커서(없으면 null)를 반환 */
+    public String page(PostCursor cursor, int limit, PostDao.PostConsumer consumer) throws IOException {
+        Deque<Node> stack = new ArrayDeque<>();
+        Node n = current.root;
+        //  cursor 보다 뒤(더 오래된) 첫 노드까지 내려가며 왼쪽으로 꺾은 노드를 쌓는다
+        while (n != null) {
+            if (cursor == null || compare(n.post, cursor.getCreatedAt(), cursor.getId()) > 0) {
+                stack.push(n);
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+        }
+        Post last = null;
+        int count = 0;
+        while (!stack.isEmpty()) {
+            Node next = stack.pop();
+            if (count == limit) {
+                return PostCursor.of(last).encode();
+            }
+            consumer.accept(next.post);
+            last = next.post;
+            count++;
+            for (Node m = next.right; m != null; m = m.left) {
+                stack.push(m);
+            }
+        }
+        return null;
+    }
+
+    private static Version insert(Version v, Post post) {
+        Node[] parts = split(v.root, post.getCreatedAt(), post.getId());
+        Node[] rest = splitAfter(parts[1], post.getCreatedAt(), post.getId());
+        Node node = new Node(post, priority(post.getId()), null, null);
+        int size = rest[0] == null ? v.size + 1 : v.size;
+        return new Version(merge(merge(parts[0], node), rest[1]), size);
+    }
+
+    //  목록 순서: 최신(createdAt 큰 것) 먼저, 같으면 id 큰 것 먼저. post 가 (createdAt, id) 보다 앞이면 음수
+    private static int compare(Post post, LocalDateTime createdAt, long id) {
+        int c = createdAt.compareTo(post.getCreatedAt());
+        return c != 0 ? c : Long.compare(id, post.getId());
+    }
+
+    //  [키보다 앞, 키 이상] 으로 나눈다 (경로상의 노드만 새로 만든다)
+    private static Node[] split(Node n, LocalDateTime createdAt, long id) {
+        if (n == null) { return new Node[2]; }
+        if (compare(n.post, createdAt, id) < 0) {
+            Node[] r = split(n.right, createdAt, id);
+            return new Node[]{n.with(n.left, r[0]), r[1]};
+        }
+        Node[] l = split(n.left, createdAt, id);
+        return new Node[]{l[0], n.with(l[1], n.right)};
+    }
+
+    //  키 이상인 트리를 [키와 같은 노드, 키보다 뒤] 로 나눈다
+    private static Node[] splitAfter(Node n, LocalDateTime createdAt, long id) {
+        if (n == null) { return new Node[2]; }
+        if (compare(n.post, createdAt, id) <= 0) {
+            Node[] r = splitAfter(n.right, createdAt, id);
+            return new Node[]{n.with(n.left, r[0]), r[1]};
+        }
+        Node[] l = splitAfter(n.left, createdAt, id);
+        return new Node[]{l[0], n.with(l[1], n.right)};
+    }
+
+    //  a 의 모든 키가 b 보다 앞일 때 합친다 (우선순위가 큰 노드가 위)
+    private static Node merge(Node a, Node b) {
+        if (a == null) { return b; }
+        if (b == null) { return a; }
+        if (a.priority >= b.priority) {
+            return a.with(a.left, merge(a.right, b));
+        }
+        return b.with(merge(a, b.left), b.right);
+    }
+
+    //  id 를 섞어 만든 결정적 우선순위 (같은 글은 항상 같은 자리)
+    private static long priority(long id) {
+        long z = id + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
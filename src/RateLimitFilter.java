@@ -0,0 +1,142 @@
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * 클라이언트별 토큰 버킷 요청 제한 필터 (컨텍스트마다 하나).
+ * - 키: 유효한 Bearer 토큰이 있으면 JWT sub, 없으면 클라이언트 IP
+ * - 버킷 상태는 "다음 토큰이 차는 시각" long 하나(GCRA)라 AtomicLong CAS 한 번으로 토큰을 꺼낸다 (락 없음)
+ * - 분당 perMinute 개가 차고 최대 burst 개까지 모인다. 다 쓰면 429 + Retry-After(초)
+ * - 가득 찬(= 한동안 요청이 없던) 버킷은 sweepIntervalMs 마다 요청 스레드 하나가 정리한다.
+ *   maxKeys 를 넘는 새 키들은 다음 정리 때까지 "other" 버킷 하나를 같이 쓴다 (요청마다 훑지 않음)
+ */
+public class RateLimitFilter extends Filter {
+    private static final String BEARER = "Bearer ";
+    private static final String OVERFLOW_KEY = "other";
+
+    private final String name;
+    private final JwtVerifier verifier;
+    //  토큰 하나가 차는 데 걸리는 시간과 버킷이 비었다가 가득 차는 데 걸리는 시간 (나노초)
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final int maxKeys;
+    private final long sweepIntervalNanos;
+    //  키 -> 다음 토큰이 차는 시각 (이보다 capacityNanos 이상 앞서면 버킷이 비어 있는 것)
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    public RateLimitFilter(String name, JwtVerifier verifier, int perMinute, int burst, int maxKeys, long sweepIntervalMillis) {
+        if (perMinute <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("rate limit for " + name + " must be positive");
+        }
+        this.name = name;
+        this.verifier = verifier;
+        this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / perMinute;
+        this.capacityNanos = intervalNanos * burst;
+        this.maxKeys = maxKeys;
+        this.sweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sweepIntervalMillis);
+        this.nextSweep = new AtomicLong(System.nanoTime() + sweepIntervalNanos);
+    }
+
+    /* board.ratelimit.<name>.perMinute / .burst 설정으로 생성 */
+    public static RateLimitFilter fromConfig(String name, JwtVerifier verifier, int defaultPerMinute, int defaultBurst) {
+        return new RateLimitFilter(name, verifier,
+                AppConfig.getInt("board.ratelimit." + name + ".perMinute", defaultPerMinute),
+                AppConfig.getInt("board.ratelimit." + name + ".burst", defaultBurst),
+                AppConfig.getInt("board.ratelimit.maxKeys", 100_000),
+                AppConfig.getLong("board.ratelimit.sweepIntervalMs", 60_000L));
+    }
+
+    @Override
+    public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+        long waitNanos = tryAcquire(clientKey(exchange), System.nanoTime());
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(seconds));
+            HttpUtil.sendJson(exchange, 429, SimpleJson.obj("error", "rate_limited"));
+            return;
+        }
+        chain.doFilter(exchange);
+    }
+
+    @Override
+    public String description() {
+        return "per-client rate limit for " + name;
+    }
+
+    /* 토큰 하나를 꺼내면 0, 모자라면 다음 토큰까지 기다려야 하는 나노초 */
+    public long tryAcquire(String key, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = newBucket(key, now);
+        }
+        while (true) {
+            long tat = bucket.get();
+            long next = Math.max(tat, now) + intervalNanos;
+            long ahead = next - now;
+            if (ahead > capacityNanos) {
+                limited.increment();
+                return ahead - capacityNanos;
+            }
+            if (bucket.compareAndSet(tat, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    String clientKey(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (verifier != null && authorization != null
+                && authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            //  검증된 토큰은 JwtVerifier 의 LRU 에 있으므로 반복 요청은 HMAC 계산 없이 조회만 한다
+            Map<String, Object> claims = verifier.verify(authorization.substring(BEARER.length()).trim());
+            Object sub = claims == null ? null : claims.get("sub");
+            if (sub != null) {
+                return "sub:" + sub;
+            }
+        }
+        return "ip:" + exchange.getRemoteAddress().getAddress().getHostAddress();
+    }
+
+    private AtomicLong newBucket(String key, long now) {
+        //  정리는 sweepIntervalMs 마다만 한다. 그 사이 maxKeys 를 넘으면 훑지 않고 바로 "other" 버킷을 쓴다
+        if (now - nextSweep.get() >= 0) {
+            sweep(now);
+        }
+        if (buckets.size() >= maxKeys) { key = OVERFLOW_KEY; }
+        //  새 버킷은 가득 찬 상태 (now - capacity 부터 토큰이 찬 것으로 본다)
+        return buckets.computeIfAbsent(key, k -> new AtomicLong(now - capacityNanos));
+    }
+
+    //  가득 찬 버킷은 새로 만든 것과 같으므로 지워도 제한이 느슨해지지 않는다
+    private void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) { return; }
+        try {
+            nextSweep.set(now + sweepIntervalNanos);
+            for (Iterator<AtomicLong> it = buckets.values().iterator(); it.hasNext(); ) {
+                if (it.next().get() <= now) {
+                    it.remove();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public String getName() { return name; }
+    public long getAllowedCount() { return allowed.sum(); }
+    public long getLimitedCount() { return limited.sum(); }
+    public int getTrackedClients() { return buckets.size(); }
+}
@@ -0,0 +1,25 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+
+//  GET /ready - 워밍업이 끝났으면 200, 아직이면 503 + Retry-After (로드밸런서/오케스트레이터 준비 확인용)
+public class ReadyHandler implements HttpHandler {
+    private final Startup startup = Startup.getInstance();
+
+    @Override
+    public void handle(HttpExchange ex) throws IOException {
+        if (!"GET".equalsIgnoreCase(ex.getRequestMethod())) {
+            HttpUtil.sendJson(ex, 405, SimpleJson.obj("error", "method_not_allowed"));
+            return;
+        }
+        if (!startup.isReady()) {
+            ex.getResponseHeaders().set("Retry-After", "1");
+            HttpUtil.sendJson(ex, 503, SimpleJson.obj("status", "warming_up"));
+            return;
+        }
+        HttpUtil.sendJson(ex, 200, SimpleJson.obj(
+                "status", "ready",
+                "readyMs", startup.getPhaseMillis("ready")));
+    }
+}
@@ -0,0 +1,120 @@
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/*
+ * HttpServer용 요청 실행기.
+ * - "virtual": 요청마다 가상 스레드 (JDK 21 이상, 없으면 pool 로 대체)
+ * - "pool"   : 크기 고정 플랫폼 스레드 풀 + 길이 제한 큐
+ * 큐가 가득 차면 교환(Exchange)을 디스패처 스레드에서 "거절 표시"와 함께 바로 실행하고,
+ * AdmissionFilter 가 표시를 보고 핸들러 대신 503 을 즉시 응답한다.
+ */
+public class RequestExecutor implements Executor {
+    private static final Logger logger = Logger.getLogger(RequestExecutor.class.getName());
+    private static final ThreadLocal<Boolean> SHEDDING = new ThreadLocal<>();
+
+    private final ExecutorService delegate;
+    private final String mode;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private RequestExecutor(ExecutorService delegate, String mode) {
+        this.delegate = delegate;
+        this.mode = mode;
+    }
+
+    public static RequestExecutor create(String mode, int threads, int queueLimit) {
+        if ("virtual".equalsIgnoreCase(mode)) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                return new RequestExecutor(virtual, "virtual");
+            }
+            logger.warning("가상 스레드를 지원하지 않는 JDK 입니다. pool 모드로 실행합니다.");
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                threads, threads, 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueLimit)),
+                namedThreads("http-worker"),
+                new ThreadPoolExecutor.AbortPolicy());
+        return new RequestExecutor(pool, "pool");
+    }
+
+    @Override
+    public void execute(Runnable exchange) {
+        queued.incrementAndGet();
+        try {
+            delegate.execute(() -> {
+                queued.decrementAndGet();
+                exchange.run();
+            });
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            rejected.increment();
+            SHEDDING.set(Boolean.TRUE);
+            try {
+                exchange.run();
+            } finally {
+                SHEDDING.remove();
+            }
+        }
+    }
+
+    //  현재 스레드에서 처리 중인 요청이 과부하로 거절된 요청인지
+    public static boolean isShedding() {
+        return SHEDDING.get() != null;
+    }
+
+    public String getMode() { return mode; }
+    public int getQueueDepth() { return queued.get(); }
+    public long getRejectedCount() { return rejected.sum(); }
+
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    /*
+     * 요청 밖에서 도는 짧은 쓰기 작업용 실행기 (SSE 구독자에게 프레임 쓰기 등).
+     * virtual 모드면 작업마다 가상 스레드라 막힌 소켓 쓰기가 플랫폼 스레드를 잡지 않는다.
+     * pool 모드면 요청 풀과 따로, 평소 coreThreads 개이고 쓰기가 막힌 작업이 있을 때만 maxThreads 까지 늘어나는 풀
+     * (큐 없이 넘기므로 한 클라이언트의 막힌 쓰기가 다른 작업을 기다리게 하지 않고, 상한을 넘으면 거절).
+     */
+    public ExecutorService newBackgroundExecutor(String name, int coreThreads, int maxThreads) {
+        if ("virtual".equals(mode)) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+        }
+        int core = Math.max(1, coreThreads);
+        return new ThreadPoolExecutor(core, Math.max(core, maxThreads), 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), namedThreads(name), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
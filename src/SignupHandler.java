@@ -3,9 +3,15 @@ import com.sun.net.httpserver.HttpHandler;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 public class SignupHandler implements HttpHandler {
+    private static final Logger logger = Logger.getLogger(SignupHandler.class.getName());
     private final UserStore userStore = UserStore.getInstance();
+    private final PasswordHasher hasher = PasswordHasher.getInstance();
 
     @Override
     public void handle(HttpExchange ex) {
@@ -14,8 +20,7 @@ public class SignupHandler implements HttpHandler {
                 HttpUtil.sendJson(ex, 405, SimpleJson.obj("error", "method_not_allowed"));
                 return;
             }
-            String body = HttpUtil.readBody(ex);
-            Map<String, String> m = SimpleJson.parseToStringMap(body);
+            Map<String, String> m = HttpUtil.readJsonObject(ex, HttpUtil.MAX_JSON_BYTES);
             String email = m.get("email");
             String password = m.get("password");
 
@@ -29,18 +34,32 @@ public class SignupHandler implements HttpHandler {
                 return;
             }
 
-            PasswordUtil.Hash h = PasswordUtil.hashPassword(password);
+            //  해시는 전용 풀에서 계산 (풀이 가득 차면 RejectedExecutionException -> 503)
+            PasswordUtil.Hash h = hasher.hash(password);
             UserStore.User user = new UserStore.User(
                     UUID.randomUUID().toString(),
                     email,
                     h.hash,
                     h.salt,
+                    h.iterations,
                     System.currentTimeMillis()
             );
-            userStore.save(user);
+            //  검사와 저장 사이에 같은 이메일이 먼저 가입했을 수 있으므로 원자적으로 한 번 더 확인
+            if (!userStore.insertIfAbsent(user)) {
+                HttpUtil.sendJson(ex, 409, SimpleJson.obj("error", "email_in_use"));
+                return;
+            }
 
             HttpUtil.sendJson(ex, 201, SimpleJson.obj("ok", true));
+        } catch (JsonFieldReader.TooLargeException e) {
+            HttpUtil.sendJson(ex, 413, SimpleJson.obj("error", "payload_too_large"));
+        } catch (JsonFieldReader.MalformedException e) {
+            HttpUtil.sendJson(ex, 400, SimpleJson.obj("error", "invalid_json"));
+        } catch (RejectedExecutionException | TimeoutException e) {
+            ex.getResponseHeaders().set("Retry-After", "1");
+            HttpUtil.sendJson(ex, 503, SimpleJson.obj("error", "server_busy"));
         } catch (Exception e) {
+            logger.log(Level.SEVERE, "Unexpected error", e);
             HttpUtil.sendJson(ex, 500, SimpleJson.obj("error", "server_error", "message", e.getMessage()));
         }
     }
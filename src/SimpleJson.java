@@ -1,36 +1,18 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 
 public class SimpleJson {
+    //  {"a":"b","n":1,"ok":true} -> Map<String,String> (숫자/불리언도 문자열로, 형식이 잘못되면 빈 맵)
+    //  요청 본문은 HttpUtil.readJsonObject 로 스트림에서 바로 읽는다
     public static Map<String, String> parseToStringMap(String jsonString) {
-        // {"a":"b","n":1,"ok":true} -> Map<String,String> (숫자/불리언도 문자열로)
-        Map<String, String> map = new HashMap<>();
-        if (jsonString == null) { return map; }
-
-        jsonString = jsonString.trim();
-        if (!jsonString.startsWith("{") && !jsonString.startsWith("[")) { return map; }
-        String inner = jsonString.substring(1, jsonString.length() - 1);
-        if (inner.isEmpty()) { return map; }
-
-
-        // 콤마 단순 분할(값 안에 콤마 없는 경우 전제)
-        String[] parts = inner.split(",");
-        for (String p : parts) {
-            String [] kv = p.split(":", 2);
-            if (kv.length != 2) continue;
-            String k = stripQuotes(kv[0].trim());
-            String vRaw = kv[1].trim();
-            String v = stripQuotes(vRaw);
-            map.put(k, v);
-        }
-        return map;
-    }
-
-    private static String stripQuotes(String s) {
-        if (s.startsWith("\"") && s.endsWith("\"") && s.length() >= 2) {
-            return s.substring(1, s.length() - 1).replace("\\\"", "\"");
+        if (jsonString == null) { return new HashMap<>(); }
+        try {
+            return JsonFieldReader.readObject(jsonString.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return new HashMap<>();
         }
-        return s;
     }
 
     //  간단한 JSON 생성기: 키-값 쌍 1~2개 빠르게 만들 때
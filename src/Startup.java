@@ -0,0 +1,59 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/*
+ * 서버 시작 단계별 시각 (JVM 시작부터의 ms).
+ * Main 이 각 단계가 끝날 때 mark() 를 부르고, 워밍업이 끝나면 markReady() 로 /ready 를 200 으로 바꾼다.
+ * 첫 API 요청이 끝난 시각(first_request)은 MetricsFilter 가 한 번만 남긴다 (time-to-first-request).
+ */
+public class Startup {
+    private static final Logger logger = Logger.getLogger(Startup.class.getName());
+
+    //  Singleton
+    private static final Startup INSTANCE = new Startup();
+    public static Startup getInstance() {
+        return INSTANCE;
+    }
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    //  단계 -> JVM 시작부터 걸린 ms
+    private final Map<String, Long> phases = new ConcurrentHashMap<>();
+    private final AtomicBoolean firstRequest = new AtomicBoolean();
+    private volatile boolean ready;
+
+    private Startup() {
+    }
+
+    public long mark(String phase) {
+        long elapsed = System.currentTimeMillis() - jvmStartMillis;
+        phases.putIfAbsent(phase, elapsed);
+        logger.info("startup " + phase + " at " + elapsed + "ms");
+        return elapsed;
+    }
+
+    public long markReady() {
+        long elapsed = mark("ready");
+        ready = true;
+        return elapsed;
+    }
+
+    public boolean isReady() { return ready; }
+
+    //  API 요청이 끝날 때마다 불리지만 실제로 기록하는 것은 첫 번째뿐이다
+    public void requestCompleted() {
+        if (!firstRequest.get() && firstRequest.compareAndSet(false, true)) {
+            mark("first_request");
+        }
+    }
+
+    public Long getPhaseMillis(String phase) {
+        return phases.get(phase);
+    }
+
+    public Map<String, Long> getPhases() {
+        return phases;
+    }
+}
@@ -1,19 +1,34 @@
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+/*
+ * 회원 저장소. H2 의 app_user 테이블이 원본이고, 정규화 이메일 -> User 메모리 색인으로 O(1) 조회한다.
+ * 색인은 처음 사용할 때 한 번 전체를 읽어 채운다 (load() 로 시작 시 미리 채울 수도 있음).
+ */
 public class UserStore {
     public static class User {
         public final String id;
         public final String email;
         public final byte[] passwordHash;
         public final byte[] salt;
+        public final int iterations;
         public final long createdAt;
 
         public User(String id, String email, byte[] passwordHash, byte[] salt, long createdAt) {
+            this(id, email, passwordHash, salt, PasswordUtil.LEGACY_ITER, createdAt);
+        }
+
+        public User(String id, String email, byte[] passwordHash, byte[] salt, int iterations, long createdAt) {
             this.id = id;
             this.email = email;
             this.passwordHash = passwordHash;
             this.salt = salt;
+            this.iterations = iterations;
             this.createdAt = createdAt;
         }
     }
@@ -24,19 +39,103 @@ public class UserStore {
         return INSTANCE;
     }
 
+    //  H2 유니크 제약 위반
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final Map<String, User> byEmail = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
 
-    public boolean existsByEmail(String email) {
+    public boolean existsByEmail(String email) throws SQLException {
         if (email == null) { return false; }
-        return byEmail.containsKey(email.toLowerCase());
+        ensureLoaded();
+        return byEmail.containsKey(normalize(email));
     }
 
-    public void save(User user) {
-        byEmail.put(user.email.toLowerCase(), user);
+    public User findByEmail(String email) throws SQLException {
+        if (email == null) { return null; }
+        ensureLoaded();
+        return byEmail.get(normalize(email));
     }
 
-    public User findByEmail(String email) {
-        if (email == null) { return null; }
-        return byEmail.get(email.toLowerCase());
+    /*
+     * 같은 이메일(대소문자 무시)이 없을 때만 저장하고 true.
+     * 동시에 가입해도 DB 유니크 인덱스가 하나만 통과시킨다.
+     */
+    public boolean insertIfAbsent(User user) throws SQLException {
+        ensureLoaded();
+        String key = normalize(user.email);
+        if (byEmail.containsKey(key)) { return false; }
+
+        String sql = "INSERT INTO app_user (id, email, emailNormalized, passwordHash, salt, iterations, createdAt) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, user, key);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            if (UNIQUE_VIOLATION.equals(e.getSQLState())) { return false; }
+            throw e;
+        }
+        byEmail.put(key, user);
+        return true;
+    }
+
+    //  기존 회원 갱신 (비밀번호 재해시 등), 없으면 추가
+    public void save(User user) throws SQLException {
+        ensureLoaded();
+        String key = normalize(user.email);
+        String sql = "MERGE INTO app_user (id, email, emailNormalized, passwordHash, salt, iterations, createdAt) "
+                + "KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        try (Connection conn = DatabaseUtil.getConnection(); PreparedStatement ps = conn.prepareStatement(sql)) {
+            bind(ps, user, key);
+            ps.executeUpdate();
+        }
+        byEmail.put(key, user);
+    }
+
+    public void load() throws SQLException {
+        ensureLoaded();
+    }
+
+    public int size() {
+        return byEmail.size();
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (loaded) { return; }
+        synchronized (this) {
+            if (loaded) { return; }
+            String sql = "SELECT id, email, emailNormalized, passwordHash, salt, iterations, createdAt FROM app_user";
+            try (Connection conn = DatabaseUtil.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    User user = new User(rs.getString(1), rs.getString(2), rs.getBytes(4), rs.getBytes(5),
+                            rs.getInt(6), rs.getLong(7));
+                    byEmail.put(rs.getString(3), user);
+                }
+            }
+            loaded = true;
+        }
+    }
+
+    private static void bind(PreparedStatement ps, User user, String normalizedEmail) throws SQLException {
+        ps.setString(1, user.id);
+        ps.setString(2, user.email);
+        ps.setString(3, normalizedEmail);
+        ps.setBytes(4, user.passwordHash);
+        ps.setBytes(5, user.salt);
+        ps.setInt(6, user.iterations);
+        ps.setLong(7, user.createdAt);
+    }
+
+    //  이미 소문자면 새 문자열을 만들지 않는다
+    static String normalize(String email) {
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (Character.isUpperCase(c)) {
+                return email.toLowerCase(Locale.ROOT);
+            }
+        }
+        return email;
     }
 }
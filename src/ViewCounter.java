@@ -0,0 +1,192 @@
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*
+ * 게시글 조회수 write-behind 카운터.
+ * 조회마다 UPDATE 하면 인기 글 한 행에 락이 몰리므로, 글마다 LongAdder 로 메모리에서 세고
+ * flushIntervalMs 마다 (또는 반영 안 된 조회가 maxPending 을 넘으면 바로) 모아서 배치 UPDATE 한다.
+ * - 유실 범위: 비정상 종료 시 최대 flushIntervalMs 동안 또는 maxPending 건의 조회 (정상 종료 시 shutdown() 에서 모두 반영)
+ * - 응답의 조회수 = 마지막으로 DB 에 반영된 값 + 아직 반영 안 된 값
+ * - 두 주기 연속 조회가 없던 글의 카운터는 정리한다. 정리 직전에 들어온 조회 한두 건은 잃을 수 있다
+ */
+public class ViewCounter {
+    private static final Logger logger = Logger.getLogger(ViewCounter.class.getName());
+
+    //  Singleton
+    private static final ViewCounter INSTANCE = new ViewCounter(
+            AppConfig.getBoolean("board.views.enabled", true),
+            AppConfig.getLong("board.views.flushIntervalMs", 5_000L),
+            AppConfig.getLong("board.views.maxPending", 10_000L),
+            AppConfig.getInt("board.views.batchSize", 500));
+    public static ViewCounter getInstance() {
+        return INSTANCE;
+    }
+
+    //  flusher 가 DB 반영 후 한 번에 바꾸는 (DB 값, 그때까지 반영한 누적 조회 수) 쌍
+    private static final class Persisted {
+        final long dbCount;
+        final long flushed;
+
+        Persisted(long dbCount, long flushed) {
+            this.dbCount = dbCount;
+            this.flushed = flushed;
+        }
+    }
+
+    private static final class Counter {
+        final LongAdder views = new LongAdder();
+        volatile Persisted persisted;
+        int idleFlushes;
+
+        Counter(long dbCount) {
+            this.persisted = new Persisted(dbCount, 0);
+        }
+
+        long display() {
+            Persisted p = persisted;
+            return p.dbCount + views.sum() - p.flushed;
+        }
+    }
+
+    private final boolean enabled;
+    private final long flushIntervalMillis;
+    private final long maxPending;
+    private final int batchSize;
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    private final LongAdder unflushed = new LongAdder();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final LongAdder flushedViews = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private volatile ScheduledExecutorService scheduler;
+    private volatile PostDao postDao;
+
+    private ViewCounter(boolean enabled, long flushIntervalMillis, long maxPending, int batchSize) {
+        this.enabled = enabled;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isEnabled() { return enabled; }
+
+    public synchronized void start(PostDao postDao) {
+        if (!enabled || scheduler != null) { return; }
+        this.postDao = postDao;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "view-counter-flush");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /* 조회 1 건을 기록하고 응답에 넣을 조회수를 반환. post 는 DB(또는 캐시)에서 읽은 글 (viewCount = DB 값) */
+    public long recordView(Post post) {
+        if (!enabled) { return post.getViewCount(); }
+        Counter c = counters.get(post.getId());
+        if (c == null) {
+            c = counters.computeIfAbsent(post.getId(), id -> new Counter(post.getViewCount()));
+        }
+        c.views.increment();
+        unflushed.increment();
+        ScheduledExecutorService s = scheduler;
+        if (s != null && unflushed.sum() >= maxPending && flushRequested.compareAndSet(false, true)) {
+            try {
+                s.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                //  종료 중: shutdown() 이 마지막으로 반영한다
+            }
+        }
+        return c.display();
+    }
+
+    //  삭제된 글의 카운터 정리
+    public void forget(Long postId) {
+        Counter c = counters.remove(postId);
+        if (c != null) {
+            unflushed.add(-(c.views.sum() - c.persisted.flushed));
+        }
+    }
+
+    public long getPendingViews() { return unflushed.sum(); }
+    public long getFlushedViews() { return flushedViews.sum(); }
+    public long getFailedFlushes() { return failedFlushes.sum(); }
+    public int getTrackedPosts() { return counters.size(); }
+
+    /* 반영 안 된 조회수를 한 트랜잭션의 배치 UPDATE 로 반영. 실패하면 다음 주기에 다시 시도 */
+    public synchronized void flush() throws SQLException {
+        flushRequested.set(false);
+        if (postDao == null) { return; }
+
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Long> totals = new HashMap<>();
+        for (Iterator<Map.Entry<Long, Counter>> it = counters.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Counter> e = it.next();
+            Counter c = e.getValue();
+            long total = c.views.sum();
+            long delta = total - c.persisted.flushed;
+            if (delta > 0) {
+                deltas.put(e.getKey(), delta);
+                totals.put(e.getKey(), total);
+                c.idleFlushes = 0;
+            } else if (++c.idleFlushes >= 2) {
+                //  다음 조회 때 DB 값으로 다시 시작하도록 캐시된 글도 비운다
+                it.remove();
+                PostCache.getInstance().evictPost(e.getKey());
+            }
+        }
+        if (deltas.isEmpty()) { return; }
+
+        postDao.addViewCounts(deltas, batchSize);
+
+        long applied = 0;
+        for (Map.Entry<Long, Long> e : deltas.entrySet()) {
+            Counter c = counters.get(e.getKey());
+            //  그 사이 삭제(forget)된 글은 이미 unflushed 에서 빠졌다
+            if (c != null) {
+                Persisted p = c.persisted;
+                c.persisted = new Persisted(p.dbCount + e.getValue(), totals.get(e.getKey()));
+                applied += e.getValue();
+            }
+        }
+        unflushed.add(-applied);
+        flushedViews.add(applied);
+    }
+
+    //  주기 반영을 멈추고 남은 조회수를 마지막으로 반영 (DatabaseUtil.shutdown() 전에 호출)
+    public void shutdown() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s == null) { return; }
+        s.shutdown();
+        try {
+            s.awaitTermination(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SQLException | RuntimeException e) {
+            failedFlushes.increment();
+            logger.log(Level.WARNING, "조회수 반영 실패 (다음 주기에 재시도)", e);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/*
+ * 서버가 포트를 연 뒤 /ready 를 200 으로 바꾸기 전에 요청 경로의 주요 코드를 미리 돌린다.
+ * 첫 요청들이 인터프리터/C1 코드와 빈 PreparedStatement 캐시에서 처리되지 않도록
+ * 목록/단건 조회(PostDao), Gson 직렬화, JWT 검증, 요청 본문 파싱을 iterations 번 반복한다.
+ * 읽기만 하며 (글을 만들지 않음), HTTP 를 거치지 않으므로 요청 지표와 요청 제한에 남지 않는다.
+ */
+public class Warmup {
+    private static final int PAGE_SIZE = 20;
+
+    private final PostDao postDao;
+    private final JwtVerifier verifier;
+    private final byte[] jwtSecret;
+    private final Gson gson = new GsonBuilder()
+            .registerTypeAdapter(LocalDateTime.class, new LocalDateTimeAdapter())
+            .create();
+
+    public Warmup(PostDao postDao, JwtVerifier verifier, byte[] jwtSecret) {
+        this.postDao = postDao;
+        this.verifier = verifier;
+        this.jwtSecret = jwtSecret;
+    }
+
+    /* 반복 횟수를 반환 (iterations <= 0 이면 아무것도 하지 않음) */
+    public int run(int iterations) throws SQLException, IOException {
+        if (iterations <= 0) { return 0; }
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", "warmup");
+        claims.put("email", "warmup@localhost");
+        claims.put("exp", System.currentTimeMillis() / 1000 + 300);
+        String token = JWTUtil.signHS256(jwtSecret, claims);
+        byte[] body = "{\"title\":\"warmup\",\"content\":\"warmup\",\"author\":\"warmup\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        StringBuilder sink = new StringBuilder();
+
+        for (int i = 0; i < iterations; i++) {
+            PostPage page = postDao.findPage(null, PAGE_SIZE);
+            sink.append(gson.toJson(page.getPosts()));
+            if (page.getNextCursor() != null) {
+                //  두 번째 페이지는 캐시를 거치지 않는 스트리밍 경로
+                postDao.streamPage(PostCursor.decode(page.getNextCursor()), PAGE_SIZE,
+                        post -> sink.append(gson.toJson(post)));
+            }
+            if (!page.getPosts().isEmpty()) {
+                sink.append(gson.toJson(postDao.findById(page.getPosts().get(0).getId())));
+            }
+            verifier.verify(token);
+            gson.fromJson(new String(body, StandardCharsets.UTF_8), Post.class);
+            JsonFieldReader.readObject(body);
+            //  결과는 버리되 직렬화가 최적화로 사라지지 않도록 모아 두었다가 비운다
+            sink.setLength(0);
+        }
+        return iterations;
+    }
+}